@@ -0,0 +1,165 @@
+package san.radialslider;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/*
+ * One frame callback shared by every slider of a thread.
+ *
+ * Sliders post the work they want done on the next frame (conflated listener dispatch, animation steps, ...) here
+ * instead of each registering its own Choreographer callback or animator. Callbacks are one-shot, posting the same
+ * callback twice before the frame runs it once, and whoever needs another frame posts again from doFrame.
+ *
+ * Uses Choreographer from API 16 on, a Handler ticking at 60Hz before that. There is one ticker per looper thread, the
+ * UI thread's for sliders in the view hierarchy and a render thread's for sliders hosted by a SliderTextureView.
+ *
+ * The ticker outlives the sliders of its thread, so it must not wedge when a scheduled frame never comes (the looper
+ * quit or dropped its queue): a frame nothing waits for anymore is cancelled, and one overdue by several frames is
+ * scheduled anew on the next post.
+ */
+final class FrameTicker {
+    private static final long FALLBACK_FRAME_DELAY_MS = 16;
+    //a scheduled frame this late is taken as lost.
+    private static final long FRAME_OVERDUE_MS = 6 * FALLBACK_FRAME_DELAY_MS;
+
+    interface Callback {
+        void doFrame(long frameTimeNanos);
+    }
+
+    private static final ThreadLocal<FrameTicker> sInstance = new ThreadLocal<>();
+
+    //swapped on every frame so neither posting nor running callbacks allocates.
+    private ArrayList<Callback> mPending = new ArrayList<>();
+    private ArrayList<Callback> mRunning = new ArrayList<>();
+    private boolean mIsFrameScheduled;
+    private long mFrameScheduledTimeMillis;
+
+    private final Driver mDriver;
+
+    static FrameTicker getInstance() {
+        if (Looper.myLooper() == null) {
+            throw new IllegalStateException("FrameTicker can only be used from a looper thread");
+        }
+        FrameTicker ticker = sInstance.get();
+        if (ticker == null) {
+            ticker = new FrameTicker();
+            sInstance.set(ticker);
+        }
+        return ticker;
+    }
+
+    private FrameTicker() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mDriver = new ChoreographerDriver(this);
+        } else {
+            mDriver = new HandlerDriver(this);
+        }
+    }
+
+    void postFrameCallback(Callback callback) {
+        if (!mPending.contains(callback)) {
+            mPending.add(callback);
+        }
+        long now = SystemClock.uptimeMillis();
+        if (mIsFrameScheduled) {
+            if (now - mFrameScheduledTimeMillis <= FRAME_OVERDUE_MS) {
+                return;
+            }
+            mDriver.cancelFrame();
+        }
+        mIsFrameScheduled = true;
+        mFrameScheduledTimeMillis = now;
+        mDriver.scheduleFrame();
+    }
+
+    void removeFrameCallback(Callback callback) {
+        mPending.remove(callback);
+        //the running list may be iterated right now, blank the entry out instead of shifting the others.
+        int index = mRunning.indexOf(callback);
+        if (index >= 0) {
+            mRunning.set(index, null);
+        }
+        if (mIsFrameScheduled && mPending.isEmpty()) {
+            mIsFrameScheduled = false;
+            mDriver.cancelFrame();
+        }
+    }
+
+    private void doFrame(long frameTimeNanos) {
+        mIsFrameScheduled = false;
+
+        ArrayList<Callback> running = mPending;
+        mPending = mRunning;
+        mRunning = running;
+
+        //callbacks may post (into mPending) or remove (from mRunning) while we go.
+        for (int i = 0; i < mRunning.size(); i++) {
+            Callback callback = mRunning.get(i);
+            if (callback != null) {
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+        mRunning.clear();
+    }
+
+    private interface Driver {
+        void scheduleFrame();
+
+        void cancelFrame();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerDriver implements Driver, Choreographer.FrameCallback {
+        private final FrameTicker mTicker;
+
+        ChoreographerDriver(FrameTicker ticker) {
+            mTicker = ticker;
+        }
+
+        @Override
+        public void scheduleFrame() {
+            //the choreographer of the ticker's thread.
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void cancelFrame() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mTicker.doFrame(frameTimeNanos);
+        }
+    }
+
+    private static final class HandlerDriver implements Driver, Runnable {
+        private final FrameTicker mTicker;
+        private final Handler mHandler = new Handler(Looper.myLooper());
+
+        HandlerDriver(FrameTicker ticker) {
+            mTicker = ticker;
+        }
+
+        @Override
+        public void scheduleFrame() {
+            mHandler.postDelayed(this, FALLBACK_FRAME_DELAY_MS);
+        }
+
+        @Override
+        public void cancelFrame() {
+            mHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            mTicker.doFrame(System.nanoTime());
+        }
+    }
+}
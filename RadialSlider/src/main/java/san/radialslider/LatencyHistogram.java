@@ -0,0 +1,172 @@
+package san.radialslider;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with fixed buckets: 1 microsecond wide up to 16 microseconds, then 8
+ * buckets per power of two up to about 18 minutes, so any recorded value is off by at most 12.5%. Longer durations
+ * land in the last bucket, negative ones in the first.
+ * <p/>
+ * Recording is lock free, it only updates preallocated atomic counters and never allocates. Read the histogram
+ * through {@link #snapshot()}, which can be called from any thread.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_BUCKET_COUNT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    //the linear buckets cover octaves 0 to 3 of the microseconds, log2(16) = 4.
+    private static final int FIRST_OCTAVE = 4;
+    private static final int LAST_OCTAVE = 29;
+    static final int BUCKET_COUNT = LINEAR_BUCKET_COUNT + (LAST_OCTAVE - FIRST_OCTAVE + 1) * SUB_BUCKET_COUNT;
+
+    //any thread may record, a metrics instance can be shared by sliders of different threads and listener executors.
+    private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong mSum = new AtomicLong();
+    private final AtomicLong mMin = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong mMax = new AtomicLong(Long.MIN_VALUE);
+
+    LatencyHistogram() {
+    }
+
+    void record(long nanos) {
+        mCounts.incrementAndGet(bucketOf(nanos));
+        mSum.addAndGet(nanos);
+        long min = mMin.get();
+        while (nanos < min && !mMin.compareAndSet(min, nanos)) {
+            min = mMin.get();
+        }
+        long max = mMax.get();
+        while (nanos > max && !mMax.compareAndSet(max, nanos)) {
+            max = mMax.get();
+        }
+    }
+
+    /**
+     * Forgets every recorded value. Values recorded while it runs may partly survive it.
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mCounts.set(i, 0);
+        }
+        mSum.set(0);
+        mMin.set(Long.MAX_VALUE);
+        mMax.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * A copy of the values recorded so far, unaffected by later recording. A value being recorded right then may be
+     * missing from some of the figures.
+     */
+    public synchronized Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = mCounts.get(i);
+            count += counts[i];
+        }
+        long min = mMin.get();
+        long max = mMax.get();
+        if (count > 0 && min > max) {
+            //caught between the bucket and the bounds of the first value.
+            return new Snapshot(new long[BUCKET_COUNT], 0, 0, Long.MAX_VALUE, Long.MIN_VALUE);
+        }
+        return new Snapshot(counts, count, mSum.get(), min, max);
+    }
+
+    static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        if (micros < LINEAR_BUCKET_COUNT) {
+            return micros < 0 ? 0 : (int) micros;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        if (octave > LAST_OCTAVE) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (octave - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return LINEAR_BUCKET_COUNT + (octave - FIRST_OCTAVE) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    //the largest value in nanoseconds that falls into the bucket.
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKET_COUNT) {
+            return (bucket + 1) * 1000L - 1;
+        }
+        int octave = FIRST_OCTAVE + (bucket - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (bucket - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long nextMicros = (long) (SUB_BUCKET_COUNT + subBucket + 1) << (octave - SUB_BUCKET_BITS);
+        return nextMicros * 1000 - 1;
+    }
+
+    /**
+     * The values of a {@link LatencyHistogram} at one point in time, all in nanoseconds.
+     * For exporting, walk the buckets with {@link #getBucketCount()}, {@link #getCountAt(int)} and
+     * {@link #getUpperBoundAt(int)}.
+     */
+    public static final class Snapshot {
+        private final long[] mCounts;
+        private final long mCount;
+        private final long mSum;
+        private final long mMin;
+        private final long mMax;
+
+        Snapshot(long[] counts, long count, long sum, long min, long max) {
+            mCounts = counts;
+            mCount = count;
+            mSum = sum;
+            mMin = min;
+            mMax = max;
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        //0 if nothing was recorded.
+        public long getMin() {
+            return mCount > 0 ? mMin : 0;
+        }
+
+        //0 if nothing was recorded.
+        public long getMax() {
+            return mCount > 0 ? mMax : 0;
+        }
+
+        //0 if nothing was recorded.
+        public long getMean() {
+            return mCount > 0 ? mSum / mCount : 0;
+        }
+
+        /**
+         * The value below which the given percentage of the recorded values lie, e.g. 99 for the 99th percentile.
+         * Reported as the upper bound of the bucket it falls into but never more than the largest recorded value.
+         */
+        public long getPercentile(double percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(mCount * Math.max(0, Math.min(100, percentile)) / 100);
+            long seen = 0;
+            for (int bucket = 0; bucket < mCounts.length; bucket++) {
+                seen += mCounts[bucket];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(upperBoundOf(bucket), mMax);
+                }
+            }
+            return mMax;
+        }
+
+        public int getBucketCount() {
+            return mCounts.length;
+        }
+
+        public long getCountAt(int bucket) {
+            return mCounts[bucket];
+        }
+
+        //the largest value that falls into the bucket, the bucket before it ends right below its lower bound.
+        public long getUpperBoundAt(int bucket) {
+            return upperBoundOf(bucket);
+        }
+    }
+}
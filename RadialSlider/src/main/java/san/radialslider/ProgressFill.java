@@ -0,0 +1,102 @@
+package san.radialslider;
+
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.SweepGradient;
+
+/*
+ * The progress fill: the part of the dial arc up to the thumb drawn over the dial, in a solid color or in a gradient
+ * laid along the whole arc that the fill uncovers as it grows.
+ *
+ * A SweepGradient goes once around its center starting at 3 o'clock. The color positions are squeezed into the
+ * arc's share of the circle and the shader's local matrix turns the gradient's start onto the arc start. Both only
+ * depend on the dial's rect, the arc, the stroke width and the colors, prepare() rebuilds them when one of those
+ * changes. Drawing a frame is a single drawArc with the prepared paint.
+ */
+final class ProgressFill {
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Matrix mShaderMatrix = new Matrix();
+    private int[] mColors;
+
+    //what the paint was prepared for.
+    private boolean mIsPrepared;
+    private final RectF mArcRect = new RectF();
+    private float mArcStartAngle;
+    private float mArcSweepAngle;
+    private int mStrokeWidth;
+
+    ProgressFill(int[] colors) {
+        mColors = colors.clone();
+        mPaint.setStyle(Paint.Style.STROKE);
+        //like the dial arc, so the fill covers the dial's cap at the arc start too.
+        mPaint.setStrokeCap(Paint.Cap.SQUARE);
+    }
+
+    //one color fills solid, more are spread evenly along the arc from its start to its end.
+    void setColors(int[] colors) {
+        mColors = colors.clone();
+        mIsPrepared = false;
+    }
+
+    int[] getColors() {
+        return mColors.clone();
+    }
+
+    /*
+     * Makes sure the paint fills the arc of arcRect from arcStartAngle over arcSweepAngle degrees, strokeWidth wide.
+     * Does nothing if it already does.
+     */
+    void prepare(RectF arcRect, float arcStartAngle, float arcSweepAngle, int strokeWidth) {
+        if (mIsPrepared && arcRect.equals(mArcRect) && arcStartAngle == mArcStartAngle
+                && arcSweepAngle == mArcSweepAngle && strokeWidth == mStrokeWidth) {
+            return;
+        }
+        mIsPrepared = true;
+        mArcRect.set(arcRect);
+        mArcStartAngle = arcStartAngle;
+        mArcSweepAngle = arcSweepAngle;
+        mStrokeWidth = strokeWidth;
+        mPaint.setStrokeWidth(strokeWidth);
+
+        int[] colors = mColors;
+        if (colors.length == 1) {
+            mPaint.setShader(null);
+            mPaint.setColor(colors[0]);
+            return;
+        }
+        //the gap of a partial arc blends from the last color back to the first, the square cap at the arc start
+        //reaches into it.
+        boolean hasGap = arcSweepAngle < 360;
+        int count = hasGap ? colors.length + 1 : colors.length;
+        int[] gradientColors = new int[count];
+        float[] positions = new float[count];
+        float arcShare = arcSweepAngle / 360;
+        for (int i = 0; i < colors.length; i++) {
+            gradientColors[i] = colors[i];
+            positions[i] = arcShare * i / (colors.length - 1);
+        }
+        if (hasGap) {
+            gradientColors[count - 1] = colors[0];
+            positions[count - 1] = 1;
+        }
+        float centerX = arcRect.centerX();
+        float centerY = arcRect.centerY();
+        SweepGradient gradient = new SweepGradient(centerX, centerY, gradientColors, positions);
+        mShaderMatrix.setRotate(arcStartAngle, centerX, centerY);
+        gradient.setLocalMatrix(mShaderMatrix);
+        mPaint.setShader(gradient);
+        //the shader replaces the color, only its alpha applies.
+        mPaint.setColor(0xFF000000);
+    }
+
+    //fills the prepared arc from fromOffset to toOffset degrees along it.
+    void draw(Canvas canvas, double fromOffset, double toOffset) {
+        float sweep = (float) (toOffset - fromOffset);
+        if (sweep <= 0) {
+            return;
+        }
+        canvas.drawArc(mArcRect, (float) (mArcStartAngle + fromOffset), sweep, false, mPaint);
+    }
+}
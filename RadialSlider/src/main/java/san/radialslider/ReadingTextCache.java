@@ -0,0 +1,158 @@
+package san.radialslider;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import java.util.Locale;
+
+/*
+ * The text of a reading together with its measurements, so that drawing a reading neither formats nor measures it.
+ *
+ * A reading is formatted (with the given number of decimals), measured with Paint.measureText and getTextBounds once and then kept until it is the least
+ * recently used of CAPACITY readings, which keeps wide ranges bounded. Entries are looked up by slot:
+ *
+ *   int slot = cache.obtain(reading, decimals);
+ *   canvas.drawText(cache.getText(slot), centerX - cache.getWidth(slot) / 2, centerY + cache.getBaselineOffset(slot), paint);
+ *
+ * A slot is only valid until the next obtain(). Lookups don't allocate, the arrays are sized once.
+ * Measurements belong to the paint the cache was made for, that paint must not change. UI thread only.
+ */
+final class ReadingTextCache {
+    static final int CAPACITY = 256;
+    private static final int BUCKET_COUNT = 512; //power of 2
+    private static final int NONE = -1;
+
+    private final Paint mPaint;
+    private final Rect mBounds = new Rect();
+
+    private final float[] mReadings = new float[CAPACITY];
+    private final int[] mDecimals = new int[CAPACITY];
+    private final String[] mTexts = new String[CAPACITY];
+    private final float[] mWidths = new float[CAPACITY];
+    private final float[] mBaselineOffsets = new float[CAPACITY];
+    private int mSize;
+
+    //hash chains, reading -> slot.
+    private final int[] mBuckets = new int[BUCKET_COUNT];
+    private final int[] mChainNext = new int[CAPACITY];
+
+    //recency list, most recently used first.
+    private final int[] mPrevious = new int[CAPACITY];
+    private final int[] mNext = new int[CAPACITY];
+    private int mHead = NONE;
+    private int mTail = NONE;
+
+    ReadingTextCache(Paint paint) {
+        mPaint = paint;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets[i] = NONE;
+        }
+    }
+
+    /*
+     * The slot holding the reading shown with the given number of decimals, formatting and measuring it if it is not
+     * cached. The reading is expected to be rounded to those decimals already.
+     */
+    int obtain(float reading, int decimals) {
+        int bucket = bucketOf(reading, decimals);
+        for (int slot = mBuckets[bucket]; slot != NONE; slot = mChainNext[slot]) {
+            if (mReadings[slot] == reading && mDecimals[slot] == decimals) {
+                moveToFront(slot);
+                return slot;
+            }
+        }
+
+        int slot;
+        if (mSize < CAPACITY) {
+            slot = mSize++;
+        } else {
+            slot = mTail;
+            unlink(slot);
+            removeFromBucket(slot);
+        }
+
+        String text = decimals == 0 ? String.valueOf(Math.round(reading))
+                : String.format(Locale.getDefault(), "%." + decimals + "f", reading);
+        mReadings[slot] = reading;
+        mDecimals[slot] = decimals;
+        mTexts[slot] = text;
+        mWidths[slot] = mPaint.measureText(text);
+        mPaint.getTextBounds(text, 0, text.length(), mBounds);
+        //moves the baseline so that the glyphs' ink, not the font's line box, is vertically centered.
+        mBaselineOffsets[slot] = -(mBounds.top + mBounds.bottom) / 2f;
+
+        mChainNext[slot] = mBuckets[bucket];
+        mBuckets[bucket] = slot;
+        linkFirst(slot);
+        return slot;
+    }
+
+    String getText(int slot) {
+        return mTexts[slot];
+    }
+
+    //the advance width, what the text takes horizontally when drawn left aligned.
+    float getWidth(int slot) {
+        return mWidths[slot];
+    }
+
+    //add to the y coordinate of the center to get the baseline.
+    float getBaselineOffset(int slot) {
+        return mBaselineOffsets[slot];
+    }
+
+    private static int bucketOf(float reading, int decimals) {
+        int hash = (Float.floatToIntBits(reading) + decimals) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (BUCKET_COUNT - 1);
+    }
+
+    private void removeFromBucket(int slot) {
+        int bucket = bucketOf(mReadings[slot], mDecimals[slot]);
+        int previous = NONE;
+        for (int current = mBuckets[bucket]; current != NONE; current = mChainNext[current]) {
+            if (current == slot) {
+                if (previous == NONE) {
+                    mBuckets[bucket] = mChainNext[current];
+                } else {
+                    mChainNext[previous] = mChainNext[current];
+                }
+                return;
+            }
+            previous = current;
+        }
+    }
+
+    private void moveToFront(int slot) {
+        if (slot != mHead) {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+    private void linkFirst(int slot) {
+        mPrevious[slot] = NONE;
+        mNext[slot] = mHead;
+        if (mHead != NONE) {
+            mPrevious[mHead] = slot;
+        }
+        mHead = slot;
+        if (mTail == NONE) {
+            mTail = slot;
+        }
+    }
+
+    private void unlink(int slot) {
+        int previous = mPrevious[slot];
+        int next = mNext[slot];
+        if (previous != NONE) {
+            mNext[previous] = next;
+        } else {
+            mHead = next;
+        }
+        if (next != NONE) {
+            mPrevious[next] = previous;
+        } else {
+            mTail = previous;
+        }
+    }
+}
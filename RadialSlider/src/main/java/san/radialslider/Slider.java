@@ -1,55 +1,225 @@
 package san.radialslider;
 
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
-import android.text.TextPaint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.util.Log;
 import android.util.TypedValue;
+import android.view.KeyEvent;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.animation.DecelerateInterpolator;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class Slider extends View {
     private static final String TAG = "Slider";
     private static final int DIAL_ARC_STROKE_WIDTH = 22;
     private static final int THUMB_ARC_STROKE_WIDTH = 5;
-    private static final int ALPHA_FOR_THUMB = 255;
     private static final int HIT_CONST = 100;
-    private int mThumbReadingTextSize = 18;
-
-    private Paint mCanvasPaint;
-    private TextPaint mTextPaint;
+    //the default arc, in the paint sweep mode: from 8 o'clock clockwise over the top to 4 o'clock.
+    private static final float DEFAULT_ARC_START_ANGLE = 120;
+    private static final float DEFAULT_ARC_SWEEP_ANGLE = 300;
+    //values of the scale attribute.
+    private static final int SCALE_LINEAR = 0;
+    private static final int SCALE_LOGARITHMIC = 1;
+
+    //draws everything on the hardware accelerated pipeline, the thumb shadow comes from a pre-rasterized bitmap.
+    public static final int RENDERING_MODE_HARDWARE = 0;
+    //forces a software layer so the thumb shadow can be drawn with Paint.setShadowLayer.
+    public static final int RENDERING_MODE_SOFTWARE = 1;
+
+    //onSliderMove is skipped when the reading rounded to a step is the same as in the previous call.
+    public static final int DISPATCH_DISTINCT_READINGS = 1;
+    //onSliderMove is called at most once per frame, with the latest reading.
+    public static final int DISPATCH_ONCE_PER_FRAME = 1 << 1;
+    private static final int THUMB_READING_TEXT_SIZE = 18;
+
+    //sizes, colors, paints and caches, shared with every slider of the same style.
+    private SliderStyle mStyle;
+
+    //the dial arc only changes with the size or the style, it is rasterized once into an alpha mask (shared through
+    //the style) and tinted with the arc color when drawn.
+    private Bitmap mDialLayer;
+    private boolean mIsDialLayerDirty = true;
+    private int mRenderingMode = RENDERING_MODE_HARDWARE;
 
     private RectF mParentViewRect = new RectF();
     private RectF mArcRect = new RectF();
-    private Drawable mThumbImage;
-    private int mThumbColor = Color.rgb(72, 106, 176);
-    private int mThumbArcStrokeWidth;
-    private int mParentViewPadding;
-    private int mThumbRadius;
+    //the arc drawn between the old and the future thumb, derived from mArcRect in onSizeChanged.
+    private RectF mThumbArcRect = new RectF();
+
+    //scratch objects reused by the draw path so that onDraw does not allocate.
+    private final Path mThumbPath = new Path();
+    private final RectF mThumbPathRect = new RectF();
+    private final float[] mConeTip = new float[2];
+
+    //when the thumb snaps to readings its positions come from this table instead of being computed per frame.
+    private final ThumbPositionTable mThumbPositionTable = new ThumbPositionTable();
+    private boolean mSnapToReadings;
 
-    private Thumb mThumb;
+    //the region a thumb movement has to repaint.
+    private final RectF mDirtyBounds = new RectF();
+    private final Rect mDirtyRect = new Rect();
+    private Drawable mThumbImage;
+    private boolean mIsThumbImageTinted;
+    private final ThumbImage mThumbImageCache = new ThumbImage();
+    //null while there is no progress fill, see setProgressColors().
+    private ProgressFill mProgressFill;
+
+    //the thumbs in the order they sit along the arc, they never pass each other. Thumb 0 is the one the single thumb
+    //methods (setThumbReading, postThumbReading, animateThumbReading) work on.
+    private static final int MAX_THUMB_COUNT = 64;
+    private Thumb[] mThumbs = new Thumb[0];
+    private int mThumbCount;
+    //sweep offset of every thumb, in thumb order and therefore sorted, touch down binary searches it for the thumb.
+    private double[] mThumbSweepOffsets = new double[0];
+    //how many readings neighboring thumbs stay apart.
+    private int mMinThumbGap;
+    //the thumb being dragged or flung, null while there is none.
+    private Thumb mSelectedThumb;
+    private final RectF mThumbBounds = new RectF();
 
     private float mCircleCenterX;
     private float mCircleCenterY;
     private int mCircleRadius;
-    private final float mArcStartAngle = 120;
-    private final float mArcSweepAngle = 300;
-    private final float mThumbAngleLimit1 = -120;//in degrees
-    private final float mThumbAngleLimit2 = -60;
-    private int mStrokeWidth;
-    private int mMin;
-    private int mMax;
-    private int mArcColor = -1;
+    private final SliderGeometry mGeometry = new SliderGeometry(DEFAULT_ARC_START_ANGLE, DEFAULT_ARC_SWEEP_ANGLE);
     private IListenForSliderState mListener;
+    private SliderInstrumentation mInstrumentation;
+    private static final long NO_PENDING_MOVE = Long.MIN_VALUE;
+    private SliderMetrics mMetrics;
+    //when the first move not drawn yet happened, in System.nanoTime() terms, NO_PENDING_MOVE if there is none.
+    private long mPendingMoveNanos = NO_PENDING_MOVE;
+    private volatile RenderHost mRenderHost;
+    private IListenForSliderSamples mSampleListener;
+
+    //listener dispatch policy, see setDispatchPolicy() and setDispatchExecutor().
+    private int mDispatchPolicy;
+    private Executor mDispatchExecutor;
+    private boolean mHasDispatchedMove;
+    private long mLastDispatchedMoveReading; //in steps
+    private boolean mIsMoveDispatchPending;
+    private float mPendingMoveReading;
+    //latest-value-wins hand off to the dispatch executor, the reading is stored as float bits.
+    private final AtomicInteger mExecutorMoveReading = new AtomicInteger();
+    private final AtomicBoolean mIsExecutorMoveQueued = new AtomicBoolean();
+    private final Runnable mExecutorMoveTask = new Runnable() {
+        @Override
+        public void run() {
+            mIsExecutorMoveQueued.set(false);
+            IListenForSliderState listener = mListener;
+            if (listener != null) {
+                listener.onSliderMove(Float.intBitsToFloat(mExecutorMoveReading.get()));
+            }
+        }
+    };
+    private final Runnable mExecutorThumbSelectedTask = new Runnable() {
+        @Override
+        public void run() {
+            IListenForSliderState listener = mListener;
+            if (listener != null) {
+                listener.onThumbSelected();
+            }
+        }
+    };
+
+    //readings posted from any thread: (sequence << 32) | float bits of the latest reading, consumed on the UI thread.
+    private final AtomicLong mPostedReading = new AtomicLong();
+    private final AtomicBoolean mIsPostedReadingScheduled = new AtomicBoolean();
+    //takes the posted readings while the slider is detached, below API 24 the view's own posts are lost then.
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private int mConsumedReadingSequence;
+    private final Runnable mConsumePostedReadingTask = new Runnable() {
+        @Override
+        public void run() {
+            consumePostedReading();
+        }
+    };
+
+    //programmatic thumb animation, stepped on the shared FrameTicker. Positions are sweep offsets in degrees.
+    private static final long DEFAULT_THUMB_ANIMATION_DURATION_MS = 300;
+    private static final TimeInterpolator DEFAULT_THUMB_ANIMATION_INTERPOLATOR = new DecelerateInterpolator();
+    private static final float SPRING_REST_OFFSET = 0.01f; //degrees
+    private static final float SPRING_REST_VELOCITY = 0.1f; //degrees per second
+    private static final long SPRING_MAX_STEP_NANOS = 4000000; //4ms keeps the integration stable for stiff springs.
+    private long mThumbAnimationDurationNanos = DEFAULT_THUMB_ANIMATION_DURATION_MS * 1000000;
+    private TimeInterpolator mThumbAnimationInterpolator = DEFAULT_THUMB_ANIMATION_INTERPOLATOR;
+    private float mSpringStiffness; //0 animates with the interpolator instead.
+    private float mSpringDampingRatio;
+    private boolean mIsThumbAnimating;
+    private long mThumbAnimationStartNanos;
+    private long mThumbAnimationLastFrameNanos;
+    private double mThumbAnimationFromOffset;
+    private double mThumbAnimationOffset;
+    private double mThumbAnimationVelocity;
+    private double mThumbAnimationToOffset;
+    private float mThumbAnimationToReading;
+
+    //fling: the thumb keeps going after ACTION_UP and slows down, stepped on the shared FrameTicker.
+    private static final float FLING_FRICTION = 3f; //velocity decays by e^(-friction * seconds)
+    private static final float FLING_STOP_VELOCITY = 5f; //degrees per second
+    private boolean mIsFlingEnabled;
+    private VelocityTracker mVelocityTracker;
+    private boolean mIsFlinging;
+    private long mFlingLastFrameNanos;
+    private double mFlingOffset;
+    private double mFlingVelocity; //degrees per second along the sweep
+
+    //rotary encoder and D-pad input, coalesced into one update per frame. The constants are from API 26.
+    private static final int AXIS_SCROLL = 26; //MotionEvent.AXIS_SCROLL
+    private static final int SOURCE_ROTARY_ENCODER = 0x00400000; //InputDevice.SOURCE_ROTARY_ENCODER
+    private static final long INPUT_ACCELERATION_WINDOW_MS = 100; //inputs closer together than this are accelerated
+    private static final long INPUT_IDLE_TIMEOUT_MS = 300; //a rotary turn is over once no input came for this long
+    private boolean mIsKeyInputEnabled;
+    private int mInputThumbIndex;
+    private float mInputStepsPerInput = 1;
+    private float mInputAcceleration;
+    //the selected thumb is driven by input rather than touch.
+    private boolean mIsInputActive;
+    private boolean mIsInputReleasePending;
+    //a D-pad key is held, its repeats only start after the idle timeout.
+    private boolean mIsInputKeyDown;
+    //steps not applied yet, the fraction of a step is carried over to the next frame.
+    private double mPendingInputSteps;
+    private long mLastInputTimeMillis;
+    //event time of the first input not applied yet, NO_PENDING_MOVE if there is none.
+    private long mFirstPendingInputTimeMillis = NO_PENDING_MOVE;
+    //created on the thread input comes in on, a hosted slider is never attached to post to.
+    private Handler mInputHandler;
+    private final Runnable mInputIdleTask = new Runnable() {
+        @Override
+        public void run() {
+            onInputIdle();
+        }
+    };
+
+    private final FrameTicker.Callback mFrameCallback = new FrameTicker.Callback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+        }
+    };
+    private float[] mSampleX = new float[8];
+    private float[] mSampleY = new float[8];
+    private long[] mSampleTime = new long[8];
     private boolean mRemoveThumb = false;
 
     public interface IListenForSliderState {
@@ -64,6 +234,98 @@ public class Slider extends View {
         mListener = listener;
     }
 
+    /*
+     * Receives the raw touch path of every move event while the thumb is dragged, e.g. to smooth it.
+     * The arrays are reused across events, only the first count entries are valid and only during the call.
+     * Times are in the SystemClock.uptimeMillis() base, like MotionEvent.getEventTime().
+     */
+    public interface IListenForSliderSamples {
+        void onSliderSamples(float[] x, float[] y, long[] eventTimes, int count);
+    }
+
+    public void registerForSliderSamples(IListenForSliderSamples listener) {
+        mSampleListener = listener;
+    }
+
+    /**
+     * Controls how often {@link IListenForSliderState#onSliderMove(float)} gets called during a drag, a combination
+     * of {@link #DISPATCH_DISTINCT_READINGS} and {@link #DISPATCH_ONCE_PER_FRAME}. 0 (the default) calls it for every
+     * move event. onThumbSelected and onSliderUp are never skipped, a conflated move still pending when the thumb is
+     * released is delivered before onSliderUp.
+     */
+    public void setDispatchPolicy(int dispatchPolicy) {
+        mDispatchPolicy = dispatchPolicy;
+        if ((dispatchPolicy & DISPATCH_ONCE_PER_FRAME) == 0) {
+            flushPendingSliderMove();
+        }
+    }
+
+    /**
+     * Delivers the listener callbacks on the given executor instead of the UI thread, or on the UI thread again when
+     * null. Moves are handed over latest-value-wins: while a move is still queued on the executor newer readings
+     * replace it instead of queueing more work. Use a serial executor to keep the callbacks in order.
+     */
+    public void setDispatchExecutor(Executor executor) {
+        mDispatchExecutor = executor;
+    }
+
+    /**
+     * Installs instrumentation around drawing, touch handling and listener dispatch, e.g. a
+     * {@link TraceInstrumentation}. Pass null (the default) to remove it.
+     */
+    public void setInstrumentation(SliderInstrumentation instrumentation) {
+        mInstrumentation = instrumentation;
+    }
+
+    /**
+     * Starts recording frame metrics into the given {@link SliderMetrics}, see there for what is measured.
+     * Pass null (the default) to stop.
+     */
+    public void setMetrics(SliderMetrics metrics) {
+        mMetrics = metrics;
+        mPendingMoveNanos = NO_PENDING_MOVE;
+    }
+
+    public SliderMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /*
+     * Something other than the view hierarchy that draws the slider and feeds it input, see SliderTextureView.
+     * A hosted slider is never attached, it is only touched from the host's thread.
+     */
+    interface RenderHost {
+        //dirty is null when the whole slider needs to be redrawn.
+        void onSliderInvalidated(Rect dirty);
+
+        //runs the task on the host's thread, may be called from any thread.
+        void post(Runnable task);
+    }
+
+    void setRenderHost(RenderHost renderHost) {
+        mRenderHost = renderHost;
+    }
+
+    @Override
+    public void invalidate() {
+        RenderHost renderHost = mRenderHost;
+        if (renderHost != null) {
+            renderHost.onSliderInvalidated(null);
+        } else {
+            super.invalidate();
+        }
+    }
+
+    @Override
+    public void invalidate(Rect dirty) {
+        RenderHost renderHost = mRenderHost;
+        if (renderHost != null) {
+            renderHost.onSliderInvalidated(dirty);
+        } else {
+            super.invalidate(dirty);
+        }
+    }
+
     public Slider(Context context) {
         this(context, null);
     }
@@ -79,86 +341,239 @@ public class Slider extends View {
         initByAttributes(attributes);
         attributes.recycle();
 
-        initPainters();
+        applyRenderingMode();
     }
 
     private void initByAttributes(TypedArray attributes) {
         Log.v(TAG, "initAttributes called");
 
-        initializeThumbs();
+        initializeThumbs(Math.max(1, Math.min(MAX_THUMB_COUNT, attributes.getInt(R.styleable.slider_attributes_thumb_count, 1))));
+
+        mStyle = SliderStyle.obtain(
+                attributes.getDimensionPixelSize(R.styleable.slider_attributes_stroke_width, DIAL_ARC_STROKE_WIDTH),
+                attributes.getDimensionPixelSize(R.styleable.slider_attributes_background_padding, 10),
+                attributes.getColor(R.styleable.slider_attributes_thumb_color, 0),
+                attributes.getColor(R.styleable.slider_attributes_arc_color, 0),
+                attributes.getColor(R.styleable.slider_attributes_thumb_text_color, 0),
+                attributes.getDimensionPixelSize(R.styleable.slider_attributes_thumb_radius, 50),
+                attributes.getDimensionPixelSize(R.styleable.slider_attributes_thumb_reading_text_size, THUMB_READING_TEXT_SIZE),
+                dpToPixels(THUMB_ARC_STROKE_WIDTH));
+        //per slider, drawables carry bounds and callbacks. The bitmap behind it is shared by the resources already.
+        mThumbImage = attributes.getDrawable(R.styleable.slider_attributes_thumb_image);
+        mIsThumbImageTinted = attributes.getBoolean(R.styleable.slider_attributes_thumb_image_tinted, false);
+        if (attributes.hasValue(R.styleable.slider_attributes_progress_color)) {
+            int progressColor = attributes.getColor(R.styleable.slider_attributes_progress_color, 0);
+            mProgressFill = new ProgressFill(attributes.hasValue(R.styleable.slider_attributes_progress_end_color)
+                    ? new int[]{progressColor, attributes.getColor(R.styleable.slider_attributes_progress_end_color, 0)}
+                    : new int[]{progressColor});
+        }
 
-        this.mStrokeWidth = attributes.getDimensionPixelSize(R.styleable.slider_attributes_stroke_width, DIAL_ARC_STROKE_WIDTH);
+        mGeometry.setArc(attributes.getFloat(R.styleable.slider_attributes_arc_start_angle, DEFAULT_ARC_START_ANGLE),
+                attributes.getFloat(R.styleable.slider_attributes_arc_sweep_angle, DEFAULT_ARC_SWEEP_ANGLE));
+        int min = attributes.getInteger(R.styleable.slider_attributes_min, 0);
+        int max = attributes.getInteger(R.styleable.slider_attributes_max, 100);
+        mGeometry.setRange(min, max);
+        if (attributes.getInt(R.styleable.slider_attributes_scale, SCALE_LINEAR) == SCALE_LOGARITHMIC) {
+            mGeometry.setScale(SliderScale.logarithmic());
+        }
+        mGeometry.setStepSize(attributes.getFloat(R.styleable.slider_attributes_step_size, 1));
+        int thumbReading = attributes.getInteger(R.styleable.slider_attributes_curr_thumb_reading, min);
 
-        mParentViewPadding = attributes.getDimensionPixelSize(R.styleable.slider_attributes_background_padding, 10);
+        updateThumbDistance();
 
-        mThumbColor = attributes.getColor(R.styleable.slider_attributes_thumb_color, 0);
-        mArcColor = attributes.getColor(R.styleable.slider_attributes_arc_color, 0);
-        mThumb.mThumbReadingTextColor = attributes.getColor(R.styleable.slider_attributes_thumb_text_color, 0);
-        mThumbRadius = attributes.getDimensionPixelSize(R.styleable.slider_attributes_thumb_radius, 50);
-        mThumbImage = attributes.getDrawable(R.styleable.slider_attributes_thumb_image);
-        mThumbReadingTextSize = attributes.getDimensionPixelSize(R.styleable.slider_attributes_thumb_reading_text_size, mThumbReadingTextSize);
+        mRenderingMode = attributes.getInt(R.styleable.slider_attributes_rendering_mode, RENDERING_MODE_HARDWARE);
+        mSnapToReadings = attributes.getBoolean(R.styleable.slider_attributes_snap_to_readings, false);
+        mDispatchPolicy = attributes.getInt(R.styleable.slider_attributes_dispatch_policy, 0);
+        mIsFlingEnabled = attributes.getBoolean(R.styleable.slider_attributes_fling_enabled, false);
+        if (attributes.getBoolean(R.styleable.slider_attributes_key_input, false)) {
+            setKeyInputEnabled(true);
+        }
 
-        mMin = attributes.getInteger(R.styleable.slider_attributes_min, 0);
-        mMax = attributes.getInteger(R.styleable.slider_attributes_max, 100);
-        int thumbReading = attributes.getInteger(R.styleable.slider_attributes_curr_thumb_reading, mMin);
+        setThumbReading(thumbReading);
+        //the other thumbs start spread out over the rest of the arc.
+        spreadThumbs(1);
+    }
 
-        mThumbArcStrokeWidth = dpToPixels(THUMB_ARC_STROKE_WIDTH);
+    /**
+     * Selects how the slider is rendered, either {@link #RENDERING_MODE_HARDWARE} (the default) or
+     * {@link #RENDERING_MODE_SOFTWARE}. Only use the software mode if you really need the thumb shadow drawn by
+     * Paint.setShadowLayer, it pushes the whole view to CPU rasterization.
+     */
+    public void setRenderingMode(int renderingMode) {
+        if (renderingMode != RENDERING_MODE_HARDWARE && renderingMode != RENDERING_MODE_SOFTWARE) {
+            throw new IllegalArgumentException("Unknown rendering mode: " + renderingMode);
+        }
+        if (mRenderingMode != renderingMode) {
+            mRenderingMode = renderingMode;
+            applyRenderingMode();
+            invalidate();
+        }
+    }
 
-        setThumbReading(thumbReading);
+    public int getRenderingMode() {
+        return mRenderingMode;
     }
 
-    private void initPainters() {
-        initCanvasPaint();
-        initTextPaint();
-        setLayerType(LAYER_TYPE_SOFTWARE, mCanvasPaint);
+    private void applyRenderingMode() {
+        if (mRenderingMode == RENDERING_MODE_SOFTWARE) {
+            setLayerType(LAYER_TYPE_SOFTWARE, null);
+        } else if (getLayerType() == LAYER_TYPE_SOFTWARE) {
+            setLayerType(LAYER_TYPE_NONE, null);
+        }
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        Log.v(TAG, "onDraw called");
+        SliderMetrics metrics = mMetrics;
+        long drawStartNanos = metrics != null ? System.nanoTime() : 0;
+        SliderInstrumentation instrumentation = mInstrumentation;
+        if (instrumentation == null) {
+            drawSlider(canvas);
+        } else {
+            instrumentation.beginSection(SliderInstrumentation.SECTION_DRAW);
+            try {
+                drawSlider(canvas);
+            } finally {
+                instrumentation.endSection(SliderInstrumentation.SECTION_DRAW);
+            }
+        }
+        if (metrics != null) {
+            recordFrame(metrics, drawStartNanos);
+        }
+    }
+
+    private void recordFrame(SliderMetrics metrics, long drawStartNanos) {
+        long now = System.nanoTime();
+        metrics.getDrawDuration().record(now - drawStartNanos);
+        if (mPendingMoveNanos != NO_PENDING_MOVE) {
+            metrics.getTouchToFrameLatency().record(now - mPendingMoveNanos);
+            mPendingMoveNanos = NO_PENDING_MOVE;
+        }
+    }
+
+    //a move that is going to be drawn, only the first one of a frame is measured.
+    private void recordMove(long eventTimeMillis) {
+        if (mMetrics == null || mPendingMoveNanos != NO_PENDING_MOVE) {
+            return;
+        }
+        //event times are uptimeMillis, add the time the event waited before it got here.
+        long queuedMillis = Math.max(0, SystemClock.uptimeMillis() - eventTimeMillis);
+        mPendingMoveNanos = System.nanoTime() - queuedMillis * 1000000;
+    }
+
+    private void drawSlider(Canvas canvas) {
         super.onDraw(canvas);
 
         drawArc(canvas);
+        if (mProgressFill != null) {
+            drawProgress(canvas, mProgressFill);
+        }
 
         if (!mRemoveThumb) {
-            drawThumb(canvas, mThumb);
+            drawThumbs(canvas);
+        }
+    }
+
+    //thumbs outside of the area being repainted are skipped, the dragged one goes on top of the others.
+    private void drawThumbs(Canvas canvas) {
+        Thumb selectedThumb = mSelectedThumb;
+        for (int i = 0; i < mThumbCount; i++) {
+            Thumb thumb = mThumbs[i];
+            if (thumb == selectedThumb) {
+                continue;
+            }
+            mThumbBounds.setEmpty();
+            unionThumbBounds(mThumbBounds, thumb, thumb.mThumbAngle, thumb.mReading);
+            if (!canvas.quickReject(mThumbBounds, Canvas.EdgeType.AA)) {
+                drawThumb(canvas, thumb);
+            }
+        }
+        if (selectedThumb != null) {
+            drawThumb(canvas, selectedThumb);
         }
     }
 
     private void drawArc(Canvas canvas) {
-        setPaintPropertiesForDialArc();
-        mCanvasPaint.setColor(getArcColor());
-        canvas.drawArc(mArcRect, mArcStartAngle, mArcSweepAngle, false, mCanvasPaint);
+        if (ensureDialLayer()) {
+            canvas.drawBitmap(mDialLayer, 0, 0, mStyle.getDialLayerPaint());
+        } else {
+            canvas.drawArc(mArcRect, mGeometry.getArcStartAngle(), mGeometry.getArcSweepAngle(), false,
+                    mStyle.getDialArcPaint());
+        }
+    }
+
+    //fills the dial from min to the thumb, with several thumbs from the first to the last one.
+    private void drawProgress(Canvas canvas, ProgressFill progressFill) {
+        if (mThumbCount == 0) {
+            return;
+        }
+        progressFill.prepare(mArcRect, mGeometry.getArcStartAngle(), mGeometry.getArcSweepAngle(), mStyle.getStrokeWidth());
+        double fromOffset = mThumbCount > 1 ? mThumbSweepOffsets[0] : 0;
+        progressFill.draw(canvas, Math.max(0, fromOffset), mThumbSweepOffsets[mThumbCount - 1]);
+    }
+
+    //rebuilds the cached dial layer if the geometry or the style changed since it was drawn, returns false if there is
+    //nothing to cache into yet.
+    private boolean ensureDialLayer() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        if (!mIsDialLayerDirty && mDialLayer != null) {
+            return true;
+        }
+
+        //shared, never recycled or drawn into from here.
+        mDialLayer = mStyle.getDialLayer(width, height, mArcRect, mGeometry.getArcStartAngle(),
+                mGeometry.getArcSweepAngle());
+        mIsDialLayerDirty = false;
+        return true;
+    }
+
+    //call whenever the size, the arc or the style changes.
+    private void invalidateDialLayer() {
+        mIsDialLayerDirty = true;
     }
 
     private void drawThumb(Canvas canvas, Thumb thumb) {
-        Log.v(TAG, "drawThumb called: Angle : " + thumb.mThumbAngle);
+        ThumbPositionTable table = getThumbPositionTable();
+        int index = table != null ? table.indexOf(thumb.mReading) : -1;
+        if (index >= 0 && table.getThumbAngle(index) != thumb.mThumbAngle) {
+            //the thumb is not sitting on its reading's position.
+            index = -1;
+        }
 
-        // find thumb position
-        //sin(-veAngle) = -1*sin(ofThatAngle)
-        //However for cosine its always positive
-        thumb.mX = (int) (mCircleCenterX + (mCircleRadius + mStrokeWidth + mThumbRadius / 2) * Math.cos(thumb.mThumbAngle));
-        //since Sine is +1 near the android's coordinate system we are reversing it.
-        //Sine increases as you go up the screen however in android's screen coordinate system your y-coordinate decreases
-        thumb.mY = (int) (mCircleCenterY - (mCircleRadius + mStrokeWidth + mThumbRadius / 2) * Math.sin(thumb.mThumbAngle)); //coz we are manually reversing the ThumbAngle if the user is dragging below the origin
+        if (index >= 0) {
+            thumb.mX = table.getThumbX(index);
+            thumb.mY = table.getThumbY(index);
+        } else {
+            // find thumb position
+            //sin(-veAngle) = -1*sin(ofThatAngle)
+            //However for cosine its always positive
+            thumb.mX = mGeometry.thumbX(thumb.mThumbAngle);
+            thumb.mY = mGeometry.thumbY(thumb.mThumbAngle);
+        }
 
         if (thumb.mOldThumbX == -1 || thumb.mOldThumbY == -1) {
-            recordOldState();
+            recordOldState(thumb);
         }
 
         if (mThumbImage != null) {
-            // draw png
-            mThumbImage.setBounds(thumb.mX - mThumbRadius / 2, thumb.mY - mThumbRadius / 2, thumb.mX + mThumbRadius / 2, thumb.mY + mThumbRadius / 2);
-            mThumbImage.draw(canvas);
+            // draw png, rasterized once at the thumb size
+            mThumbImageCache.prepare(mThumbImage, 2 * (mStyle.getThumbRadius() / 2), mIsThumbImageTinted, mStyle.getThumbColor());
+            mThumbImageCache.draw(canvas, thumb.mX, thumb.mY);
         } else {
 
-            setTextPaintProperties(thumb);
-
             //maintaining the old thumb
             if (thumb.mOldThumbAngle != thumb.mThumbAngle && thumb.mIsThumbSelected) {
-                drawTearDropShapedThumb(canvas, thumb.mOldThumbX, thumb.mOldThumbY, mThumbRadius, thumb.mOldThumbAngle);
-
-                updateTextInsideTheThumb(thumb.mOldThumbX, thumb.mOldThumbY, canvas, Math.round(thumb.mLastReading));
+                int oldIndex = table != null ? table.indexOf(thumb.mLastReading) : -1;
+                if (oldIndex >= 0 && table.getThumbAngle(oldIndex) == thumb.mOldThumbAngle) {
+                    drawTearDropShapedThumb(canvas, table, oldIndex);
+                } else {
+                    drawTearDropShapedThumb(canvas, thumb.mOldThumbX, thumb.mOldThumbY, mStyle.getThumbRadius(), thumb.mOldThumbAngle);
+                    updateTextInsideTheThumb(thumb.mOldThumbX, thumb.mOldThumbY, canvas, thumb.mLastReading);
+                }
 
                 drawArcBetweenThumbs(canvas, thumb);
             }
@@ -166,206 +581,761 @@ public class Slider extends View {
                 Draws the future setPoint thumb.
                 From the thumbAngle, you can derive the point from where the lines needs to be drawn for the tear drop shape.
              */
-            drawTearDropShapedThumb(canvas, thumb.mX, thumb.mY, mThumbRadius, thumb.mThumbAngle);
+            if (index >= 0) {
+                drawTearDropShapedThumb(canvas, table, index);
+            } else {
+                drawTearDropShapedThumb(canvas, thumb.mX, thumb.mY, mStyle.getThumbRadius(), thumb.mThumbAngle);
+                updateTextInsideTheThumb(thumb.mX, thumb.mY, canvas, thumb.mReading);
+            }
+        }
+    }
 
-            updateTextInsideTheThumb(thumb.mX, thumb.mY, canvas, Math.round(thumb.mReading));
+    //draws the thumb (and its reading) at a position precomputed in the table.
+    private void drawTearDropShapedThumb(Canvas canvas, ThumbPositionTable table, int index) {
+        int thumbX = table.getThumbX(index);
+        int thumbY = table.getThumbY(index);
+        drawTearDropShape(canvas, thumbX, thumbY, mStyle.getThumbRadius(), table.getTearDropStartAngle(index),
+                table.getTearDropTipX(index), table.getTearDropTipY(index));
+        drawReadingText(canvas, table.getReading(index), thumbX, thumbY);
+    }
+
+    //the table only serves snapped thumbs and ranges narrow enough to fit it.
+    private ThumbPositionTable getThumbPositionTable() {
+        if (mSnapToReadings && mThumbPositionTable.ensure(mGeometry, mStyle.getThumbRadius())) {
+            return mThumbPositionTable;
         }
+        return null;
     }
 
-    private void setTextPaintProperties(Thumb thumb) {
-        mTextPaint.reset();
-        mTextPaint.setColor(thumb.mThumbReadingTextColor);
-        mTextPaint.setTextSize(mThumbReadingTextSize);
-        mTextPaint.setAntiAlias(true);
+    /**
+     * The readings go from min at the start of the arc to max at its end, 0 to 100 by default. Thumbs outside the new
+     * range move to its nearest end. Same as the min and max attributes.
+     *
+     * @throws IllegalArgumentException if max is not more than min, or the scale does not increase over the range
+     */
+    public void setRange(int min, int max) {
+        if (max <= min) {
+            throw new IllegalArgumentException("max has to be more than min: " + min + ", " + max);
+        }
+        mGeometry.setRange(min, max);
+        for (int i = 0; i < mThumbCount; i++) {
+            mThumbs[i].mReading = Math.max(min, Math.min(max, mThumbs[i].mReading));
+        }
+        onReadingsMoved();
     }
 
-    private void setPaintPropertiesForThumb() {
-        mCanvasPaint.reset();
-        mCanvasPaint.setColor(mThumbColor);
-        mCanvasPaint.setStyle(Paint.Style.FILL);
-        mCanvasPaint.setAntiAlias(true);
-        mCanvasPaint.setAlpha(ALPHA_FOR_THUMB);
+    public int getMin() {
+        return mGeometry.getMin();
     }
 
-    private void updateTextInsideTheThumb(int thumbX, int thumbY, Canvas canvas, int reading) {
-        String text = String.valueOf(reading);
+    public int getMax() {
+        return mGeometry.getMax();
+    }
 
-        float horizontalAdjustmentFactor;
-        if (text.length() == 1) {
-            horizontalAdjustmentFactor = 0.35f;
-        } else if (text.length() <= 2) {
-            horizontalAdjustmentFactor = 0.65f;
-        } else {
-            horizontalAdjustmentFactor = 0.75f;
+    /**
+     * Spreads the readings over the arc by the given scale, e.g. {@link SliderScale#logarithmic()} for frequencies.
+     * {@link SliderScale#LINEAR} (or null) goes back to the default. The thumbs keep their readings.
+     *
+     * @throws IllegalArgumentException if the scale does not increase over the range
+     */
+    public void setScale(SliderScale scale) {
+        mGeometry.setScale(scale);
+        onReadingsMoved();
+    }
+
+    /**
+     * Readings are rounded to multiples of stepSize from min, 1 (the default) gives integer readings. Fractional steps
+     * are shown with their decimals, e.g. 0.5 shows "2.5". Same as the step_size attribute.
+     */
+    public void setStepSize(float stepSize) {
+        mGeometry.setStepSize(stepSize);
+        onReadingsMoved();
+    }
+
+    /**
+     * Sets the arc the thumbs move along, in degrees as for {@link Canvas#drawArc}: it starts at startAngle, 0 being
+     * 3 o'clock, and goes sweepAngle clockwise. E.g. 270, 360 is a full circle starting at 12 o'clock and 180, 180 the
+     * upper half. The default is 120, 300. Same as the arc_start_angle and arc_sweep_angle attributes.
+     * <p/>
+     * On a full circle min and max meet at the start, a dragged thumb stops there instead of wrapping around.
+     * The thumbs keep their readings.
+     *
+     * @throws IllegalArgumentException if sweepAngle is not more than 0 and at most 360
+     */
+    public void setArc(float startAngle, float sweepAngle) {
+        mGeometry.setArc(startAngle, sweepAngle);
+        invalidateDialLayer();
+        onReadingsMoved();
+    }
+
+    //in degrees, between 0 and 360.
+    public float getArcStartAngle() {
+        return mGeometry.getArcStartAngle();
+    }
+
+    public float getArcSweepAngle() {
+        return mGeometry.getArcSweepAngle();
+    }
+
+    //the arc, the scale or the steps changed: the readings stay, their positions on the arc don't.
+    private void onReadingsMoved() {
+        mThumbPositionTable.invalidate();
+        float[] readings = new float[mThumbCount];
+        for (int i = 0; i < mThumbCount; i++) {
+            readings[i] = mSnapToReadings ? mGeometry.snapToStep(mThumbs[i].mReading) : mThumbs[i].mReading;
         }
+        setThumbReadings(readings);
+    }
 
-        canvas.drawText(text, thumbX - (mThumbRadius * horizontalAdjustmentFactor), thumbY + (mThumbRadius / 3), mTextPaint);
+    /**
+     * Makes the thumb snap to the position of its reading (see {@link #setStepSize(float)}) instead of following the
+     * finger freely.
+     * Snapped thumb positions are precomputed once per size so drawing them is a lookup.
+     */
+    public void setSnapToReadings(boolean snapToReadings) {
+        if (mSnapToReadings != snapToReadings) {
+            mSnapToReadings = snapToReadings;
+            if (snapToReadings) {
+                cancelThumbAnimation();
+                //rounding keeps the thumbs in order.
+                for (int i = 0; i < mThumbCount; i++) {
+                    applyThumbReading(mThumbs[i], mGeometry.snapToStep(mThumbs[i].mReading));
+                }
+            }
+            invalidate();
+        }
+    }
+
+    /*
+     * During a drag only the moving thumb (with its shadow and reading) and the arc between the old and the future
+     * thumb change, everything else on the dial stays the same. Repaint the union of where the thumb was, where it is
+     * now and the piece of arc in between instead of the whole view.
+     */
+    private void invalidateThumbMovement(Thumb thumb, double previousAngle, float previousReading) {
+        RectF dirty = mDirtyBounds;
+        dirty.setEmpty();
+        unionThumbBounds(dirty, thumb, previousAngle, previousReading);
+        unionThumbBounds(dirty, thumb, thumb.mThumbAngle, thumb.mReading);
+        unionArcBetweenThumbsBounds(dirty, mThumbArcRect, mStyle.getThumbArcStrokeWidth(), previousAngle, thumb.mThumbAngle);
+        if (mProgressFill != null) {
+            unionArcBetweenThumbsBounds(dirty, mArcRect, mStyle.getStrokeWidth(), previousAngle, thumb.mThumbAngle);
+        }
+        dirty.roundOut(mDirtyRect);
+        invalidate(mDirtyRect);
+    }
+
+    private void unionThumbBounds(RectF dirty, Thumb thumb, double thumbAngle, float reading) {
+        int thumbX = mGeometry.thumbX(thumbAngle);
+        int thumbY = mGeometry.thumbY(thumbAngle);
+
+        //the cone of the tear drop reaches thumbRadius * 1.5 towards the center, the shadow goes past that.
+        int thumbRadius = mStyle.getThumbRadius();
+        float reach = thumbRadius + thumbRadius / 2 + mStyle.getThumbShadowPadding() + 1;
+        dirty.union(thumbX - reach, thumbY - reach, thumbX + reach, thumbY + reach);
+
+        //the reading may be wider than the thumb, it is centered on the thumb center.
+        ReadingTextCache readingTexts = mStyle.getReadingTexts();
+        float halfTextWidth = readingTexts.getWidth(obtainReadingText(readingTexts, reading)) / 2 + 1;
+        int textSize = mStyle.getThumbReadingTextSize();
+        dirty.union(thumbX - halfTextWidth, thumbY - textSize, thumbX + halfTextWidth, thumbY + textSize);
+    }
+
+    //the part of the arc of arcRect, strokeWidth wide, that lies between the two thumb angles.
+    private void unionArcBetweenThumbsBounds(RectF dirty, RectF arcRect, int strokeWidth, double previousAngle, double thumbAngle) {
+        double previousSweepAngle = mGeometry.toSweepAngle(previousAngle);
+        double sweepAngle = mGeometry.toSweepAngle(thumbAngle);
+        //drawArcBetweenThumbs skips arcs shorter than 0.1 degrees, widen the range so the arc appearing near the old
+        //thumb is covered as well.
+        double from = Math.min(previousSweepAngle, sweepAngle) - 0.1;
+        double to = Math.max(previousSweepAngle, sweepAngle) + 0.1;
+
+        float radiusX = arcRect.width() / 2;
+        float radiusY = arcRect.height() / 2;
+        float centerX = arcRect.centerX();
+        float centerY = arcRect.centerY();
+        float strokePadding = strokeWidth + 1; //covers the square cap too.
+
+        unionArcPoint(dirty, centerX, centerY, radiusX, radiusY, from, strokePadding);
+        unionArcPoint(dirty, centerX, centerY, radiusX, radiusY, to, strokePadding);
+        //the arc bulges out the most where it crosses the axes.
+        for (double axisAngle = Math.ceil(from / 90) * 90; axisAngle < to; axisAngle += 90) {
+            unionArcPoint(dirty, centerX, centerY, radiusX, radiusY, axisAngle, strokePadding);
+        }
+    }
+
+    private void unionArcPoint(RectF dirty, float centerX, float centerY, float radiusX, float radiusY, double sweepAngle, float padding) {
+        double angle = getAngleInRadians(sweepAngle);
+        float x = (float) (centerX + radiusX * Math.cos(angle));
+        float y = (float) (centerY + radiusY * Math.sin(angle));
+        dirty.union(x - padding, y - padding, x + padding, y + padding);
+    }
+
+    private void updateThumbDistance() {
+        mGeometry.setThumbDistance(mCircleRadius + mStyle.getStrokeWidth() + mStyle.getThumbRadius() / 2);
+    }
+
+    private void updateTextInsideTheThumb(int thumbX, int thumbY, Canvas canvas, float reading) {
+        drawReadingText(canvas, reading, thumbX, thumbY);
+    }
+
+    //the reading is shown rounded to a step, with as many decimals as the step size has.
+    private int obtainReadingText(ReadingTextCache readingTexts, float reading) {
+        return readingTexts.obtain(mGeometry.snapToStep(reading), mGeometry.getStepDecimals());
+    }
+
+    //draws the reading centered on the thumb center, horizontally by its width and vertically by its glyph bounds.
+    private void drawReadingText(Canvas canvas, float reading, float centerX, float centerY) {
+        ReadingTextCache readingTexts = mStyle.getReadingTexts();
+        int slot = obtainReadingText(readingTexts, reading);
+        canvas.drawText(readingTexts.getText(slot), centerX - readingTexts.getWidth(slot) / 2,
+                centerY + readingTexts.getBaselineOffset(slot), mStyle.getTextPaint());
     }
 
     private void drawArcBetweenThumbs(Canvas canvas, Thumb thumb) {
-        double oldAngle = getPaintSweepNormalizedAngle(thumb.mOldThumbAngle);
-        double futureAngle = getPaintSweepNormalizedAngle(thumb.mThumbAngle);
+        double oldAngle = mGeometry.toSweepAngle(thumb.mOldThumbAngle);
+        double futureAngle = mGeometry.toSweepAngle(thumb.mThumbAngle);
 
         if (Math.abs(futureAngle - oldAngle) <= 0.1) {
             return;
         }
         //draw an arc
-        mCanvasPaint.reset();
-        mCanvasPaint.setColor(thumb.mThumbReadingTextColor);
-        mCanvasPaint.setStyle(Paint.Style.STROKE);
-        mCanvasPaint.setStrokeCap(Paint.Cap.SQUARE);
-        mCanvasPaint.setStrokeWidth(mThumbArcStrokeWidth);
-        mCanvasPaint.setAntiAlias(true);
+        canvas.drawArc(mThumbArcRect, (float) oldAngle, (float) (futureAngle - oldAngle), false, mStyle.getThumbArcPaint());
+    }
+
+    private void drawTearDropShapedThumb(Canvas canvas, int thumbX, int thumbY, int thumbRadius, double thumbAngleInRadians) {
+        double startAngle = SliderGeometry.tearDropStartAngle(thumbAngleInRadians);
+        float[] endPointOfCone = mConeTip;
+        mGeometry.tearDropTip(thumbX, thumbY, thumbRadius + thumbRadius / 2, endPointOfCone);
+        drawTearDropShape(canvas, thumbX, thumbY, thumbRadius, (float) startAngle, endPointOfCone[0], endPointOfCone[1]);
+    }
 
-        Log.v(TAG, "drawing an arc : start angle : " + oldAngle);
-        Log.v(TAG, "drawing an arc : sweep angle : " + (float) (futureAngle - oldAngle));
+    private void drawTearDropShape(Canvas canvas, int thumbX, int thumbY, int thumbRadius, float startAngle, float coneTipX, float coneTipY) {
+        Path path = mThumbPath;
+        path.reset();
 
-        RectF rectF = new RectF(mArcRect.left + (mStrokeWidth + mThumbRadius / 2), mArcRect.top + (mStrokeWidth + mThumbRadius / 2), mArcRect.right - (mStrokeWidth + mThumbRadius / 2), mArcRect.bottom - (mStrokeWidth + mThumbRadius / 2));
-        canvas.drawArc(rectF, (float) oldAngle, (float) (futureAngle - oldAngle), false, mCanvasPaint);
+        RectF pathRect = mThumbPathRect;
+        pathRect.set(thumbX - thumbRadius, thumbY - thumbRadius, thumbX + thumbRadius, thumbY + thumbRadius);
+
+        path.addArc(pathRect, startAngle, SliderGeometry.TEAR_DROP_ARC_SWEEP_ANGLE);
+        path.lineTo(coneTipX, coneTipY);
+        path.close();
+        //the software mode paint carries a shadow layer to get the shadow correct.
+        boolean isSoftware = mRenderingMode == RENDERING_MODE_SOFTWARE;
+        if (!isSoftware) {
+            //shadow layers are ignored on the hardware pipeline, blit the pre-rasterized shadow instead.
+            //the shadow is rasterized for the thumb angle 0, turn it by the thumb angle the start angle was derived from.
+            float thumbAngleInDegrees = (float) SliderGeometry.tearDropStartAngle(0) - startAngle;
+            mStyle.getThumbShadow().draw(canvas, thumbX, thumbY, thumbAngleInDegrees, mStyle.getShadowPaint());
+        }
+        canvas.drawPath(path, mStyle.getThumbPaint(isSoftware));
+    }
+
+    //called after the view's size is determined.
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        Log.v(TAG, "onSizeChanged called");
+
+        int padding = mStyle.getBackgroundPadding();
+        mArcRect.set(mParentViewRect.left + padding, mParentViewRect.top + padding,
+                mParentViewRect.right - padding, mParentViewRect.bottom - padding);
+        invalidateDialLayer();
+        mThumbPositionTable.invalidate();
+
+        // use smaller dimension for calculations (depends on parent size)
+        mCircleCenterX = mArcRect.centerX();
+        mCircleCenterY = mArcRect.centerY();
+        mGeometry.setCenter(mCircleCenterX, mCircleCenterY);
+        mCircleRadius = (int) (mArcRect.width() < mArcRect.height() ? mArcRect.width() / 2 : mArcRect.height() / 2);
+        updateThumbDistance();
+
+        int thumbArcInset = mStyle.getStrokeWidth() + mStyle.getThumbRadius() / 2;
+        mThumbArcRect.set(mArcRect.left + thumbArcInset, mArcRect.top + thumbArcInset, mArcRect.right - thumbArcInset, mArcRect.bottom - thumbArcInset);
+
+        super.onSizeChanged(w, h, oldw, oldh);
+    }
+
+    private void updateSliderBy(Thumb thumb, double angle) {
+        if (mGeometry.isFullCircle()) {
+            angle = stopAtSeam(thumb, angle);
+        }
+        if (mGeometry.isValidAngle(angle)) {
+            thumb.mThumbAngle = clampThumbAngle(thumb, angle);
+        } else {
+            return;
+        }
+
+        thumb.mReading = mGeometry.readingAt(thumb.mThumbAngle);
+        if (mSnapToReadings) {
+            thumb.mThumbAngle = mGeometry.thumbAngleForReading(thumb.mReading);
+        }
+        updateThumbSweepOffset(thumb);
+        if (mListener != null) {
+            requestSliderMove(thumb.mReading);
+        }
+    }
+
+    /*
+     * On a full circle the arc has no gap to stop a drag, going over the point where the ends meet would take the
+     * thumb from max to min in one move. A move of more than half the circle is one across that point, the thumb stays
+     * at the end it came from.
+     */
+    private double stopAtSeam(Thumb thumb, double angle) {
+        double previousOffset = mThumbSweepOffsets[thumb.mIndex];
+        if (Math.abs(mGeometry.sweepOffset(angle) - previousOffset) <= 180) {
+            return angle;
+        }
+        return mGeometry.thumbAngleForSweepOffset(previousOffset > 180 ? mGeometry.getArcSweepAngle() : 0);
+    }
+
+    private void requestSliderMove(float reading) {
+        if ((mDispatchPolicy & DISPATCH_ONCE_PER_FRAME) != 0) {
+            mPendingMoveReading = reading;
+            if (!mIsMoveDispatchPending) {
+                mIsMoveDispatchPending = true;
+                FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+            }
+            return;
+        }
+        deliverSliderMove(reading);
+    }
+
+    private void flushPendingSliderMove() {
+        if (mIsMoveDispatchPending) {
+            mIsMoveDispatchPending = false;
+            deliverSliderMove(mPendingMoveReading);
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        //before the flush, a move the input makes is delivered on this frame.
+        if (mIsInputActive) {
+            applyPendingInput();
+            if (mIsInputReleasePending) {
+                endInput();
+            }
+        }
+        flushPendingSliderMove();
+        if (mIsThumbAnimating) {
+            stepThumbAnimation(frameTimeNanos);
+        }
+        if (mIsFlinging) {
+            stepFling(frameTimeNanos);
+        }
+    }
+
+    /**
+     * Lets rotary encoders and the D-pad left and right keys turn the slider while it is focused, off by default.
+     * Turning it on makes the slider focusable. Same as the key_input attribute.
+     */
+    public void setKeyInputEnabled(boolean keyInputEnabled) {
+        mIsKeyInputEnabled = keyInputEnabled;
+        if (keyInputEnabled) {
+            setFocusable(true);
+        } else {
+            endInput();
+        }
+    }
+
+    /**
+     * Which thumb rotary encoders and D-pad keys move, the first one by default.
+     */
+    public void setInputThumb(int thumbIndex) {
+        checkThumbIndex(thumbIndex);
+        if (mInputThumbIndex != thumbIndex) {
+            endInput();
+            mInputThumbIndex = thumbIndex;
+        }
+    }
+
+    /**
+     * How far rotary encoders and D-pad keys move the thumb: stepsPerInput steps (see {@link #setStepSize(float)})
+     * per detent or key press, 1 by default. With an acceleration above 0 (the default) inputs coming in quickly move
+     * it further, up to 1 + acceleration times as far when they come back to back, e.g. 4 lets a fast spin cross the
+     * range.
+     */
+    public void setInputSpeed(float stepsPerInput, float acceleration) {
+        if (!(stepsPerInput > 0) || !(acceleration >= 0)) {
+            throw new IllegalArgumentException("Invalid input speed: " + stepsPerInput + " steps, acceleration "
+                    + acceleration);
+        }
+        mInputStepsPerInput = stepsPerInput;
+        mInputAcceleration = acceleration;
+    }
+
+    /*
+     * Rotary encoders (the crown or bezel of a watch, a kiosk knob) turn the input thumb, clockwise towards max.
+     * The slider has to have key input enabled and be focused to get them.
+     */
+    @Override
+    public boolean onGenericMotionEvent(MotionEvent event) {
+        if (event.getAction() == MotionEvent.ACTION_SCROLL
+                && (event.getSource() & SOURCE_ROTARY_ENCODER) == SOURCE_ROTARY_ENCODER
+                && onRotaryInput(event.getAxisValue(AXIS_SCROLL), event.getEventTime())) {
+            return true;
+        }
+        return super.onGenericMotionEvent(event);
+    }
+
+    //the AXIS_SCROLL value of a rotary event, clockwise turns give negative values.
+    boolean onRotaryInput(float scroll, long eventTimeMillis) {
+        return scroll != 0 && onInput(-scroll, eventTimeMillis);
+    }
+
+    //D-pad left and right move the input thumb, up and down are left for focus navigation.
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        int direction = getInputDirection(keyCode);
+        if (direction != 0 && onInput(direction, event.getEventTime())) {
+            mIsInputKeyDown = mIsInputActive;
+            return true;
+        }
+        return super.onKeyDown(keyCode, event);
+    }
+
+    @Override
+    public boolean onKeyUp(int keyCode, KeyEvent event) {
+        if (getInputDirection(keyCode) != 0 && mIsInputActive) {
+            //released once the frame applied what is still pending.
+            mIsInputKeyDown = false;
+            mIsInputReleasePending = true;
+            FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+            return true;
+        }
+        return super.onKeyUp(keyCode, event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        if (!gainFocus) {
+            endInput();
+        }
+    }
+
+    private static int getInputDirection(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                return 1;
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /*
+     * Rotary and key input only adds up here, the thumb is moved once on the next frame however many events came in
+     * (see applyPendingInput). The listener sees what a drag gives it: onThumbSelected on the first input, onSliderMove
+     * as the thumb moves and onSliderUp when the key is released or the encoder rested for INPUT_IDLE_TIMEOUT_MS.
+     * Returns false if the input thumb can't be moved.
+     */
+    private boolean onInput(double inputs, long eventTimeMillis) {
+        if (!mIsKeyInputEnabled || mInputThumbIndex >= mThumbCount) {
+            return false;
+        }
+        if (!mIsInputActive) {
+            if (mSelectedThumb != null && !mIsFlinging) {
+                //a drag is going on, it wins.
+                return true;
+            }
+            stopFling();
+            Thumb thumb = mThumbs[mInputThumbIndex];
+            if (!thumb.mIsThumbEnabled) {
+                return false;
+            }
+            setThumbSelected(thumb, true);
+            recordOldState(thumb);
+            mIsInputActive = true;
+            mPendingInputSteps = 0;
+            //the first input is never accelerated.
+            mLastInputTimeMillis = eventTimeMillis - INPUT_ACCELERATION_WINDOW_MS;
+            if (mInputHandler == null) {
+                mInputHandler = new Handler();
+            }
+            mInputHandler.postDelayed(mInputIdleTask, INPUT_IDLE_TIMEOUT_MS);
+        }
+        mIsInputReleasePending = false;
+
+        long interval = eventTimeMillis - mLastInputTimeMillis;
+        mLastInputTimeMillis = eventTimeMillis;
+        double acceleration = interval < INPUT_ACCELERATION_WINDOW_MS
+                ? 1 + mInputAcceleration * (INPUT_ACCELERATION_WINDOW_MS - Math.max(0, interval)) / (double) INPUT_ACCELERATION_WINDOW_MS
+                : 1;
+        mPendingInputSteps += inputs * mInputStepsPerInput * acceleration;
+        if (mFirstPendingInputTimeMillis == NO_PENDING_MOVE) {
+            mFirstPendingInputTimeMillis = eventTimeMillis;
+        }
+        FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+        return true;
+    }
+
+    //moves the input thumb by the whole steps that added up since the last frame.
+    private void applyPendingInput() {
+        Thumb thumb = mSelectedThumb;
+        long steps = (long) mPendingInputSteps;
+        if (thumb == null || steps == 0) {
+            return;
+        }
+        mPendingInputSteps -= steps;
+        long step = Math.max(0, Math.min(mGeometry.getStepCount(), mGeometry.stepOf(thumb.mReading) + steps));
+        float reading = mGeometry.readingOfStep(step);
+
+        double previousAngle = thumb.mThumbAngle;
+        float previousReading = thumb.mReading;
+        double thumbAngle = mGeometry.thumbAngleForReading(reading);
+        double clampedAngle = clampThumbAngle(thumb, thumbAngle);
+        if (clampedAngle != thumbAngle) {
+            //ran into a neighboring thumb, it stops there.
+            reading = mGeometry.readingAt(clampedAngle);
+            thumbAngle = mSnapToReadings ? mGeometry.thumbAngleForReading(reading) : clampedAngle;
+        }
+        if (reading == previousReading && thumbAngle == previousAngle) {
+            //at an end of the arc, what is left over doesn't hold back turning the other way.
+            mPendingInputSteps = 0;
+            mFirstPendingInputTimeMillis = NO_PENDING_MOVE;
+            return;
+        }
+        thumb.mReading = reading;
+        thumb.mThumbAngle = thumbAngle;
+        updateThumbSweepOffset(thumb);
+        recordMove(mFirstPendingInputTimeMillis);
+        mFirstPendingInputTimeMillis = NO_PENDING_MOVE;
+        if (mListener != null) {
+            requestSliderMove(reading);
+        }
+        invalidateThumbMovement(thumb, previousAngle, previousReading);
+    }
+
+    private void onInputIdle() {
+        if (!mIsInputActive) {
+            return;
+        }
+        long idleMillis = SystemClock.uptimeMillis() - mLastInputTimeMillis;
+        if (mIsInputKeyDown) {
+            //the key up ends it.
+            mInputHandler.postDelayed(mInputIdleTask, INPUT_IDLE_TIMEOUT_MS);
+        } else if (idleMillis < INPUT_IDLE_TIMEOUT_MS) {
+            mInputHandler.postDelayed(mInputIdleTask, INPUT_IDLE_TIMEOUT_MS - idleMillis);
+        } else {
+            endInput();
+        }
     }
 
-    /*
-       y - y1 = m(x - x1); equation of a line.
-       The below equation you get by taking the ratio of the distance and then substituting the above equation into that ratio
-       equation and then getting one of the coordinates and then substituting that in the above coordinate to get the other point.
-    */
-    private Coordinates getPointOnTheLineAtDistance(Coordinates p1, Coordinates p2, int distanceFromPoint) {
-        float distanceBetweenPoints = (float) Math.sqrt(Math.pow(p2.x - p1.x, 2) + Math.pow(p2.y - p1.y, 2));
-        float t = distanceFromPoint / distanceBetweenPoints;
-        Coordinates future = new Coordinates();
-        future.x = ((1 - t) * p1.x + t * p2.x);
-        future.y = ((1 - t) * p1.y + t * p2.y);
-        return future;
+    //releases the thumb the input moved, applying what is still pending and reporting where it ended up.
+    private void endInput() {
+        if (!mIsInputActive) {
+            return;
+        }
+        applyPendingInput();
+        reportSliderState();
+        setThumbSelected(mSelectedThumb, false);
+        stopInput();
+        invalidate();
     }
 
-    private void drawTearDropShapedThumb(Canvas canvas, int thumbX, int thumbY, int thumbRadius, double thumbAngleInRadians) {
-        setPaintPropertiesForThumb();
-
-        float openingAngle = 60.0f;
-        float arcSweepAngle = 270.0f;
-        Path path = new Path();
-
-        RectF pathRect = new RectF(thumbX - thumbRadius, thumbY - thumbRadius, thumbX + thumbRadius, thumbY + thumbRadius);
-
-        double startAngle = getAngleInDegrees(thumbAngleInRadians);
-
-        //You determine the tilt angle by reversing the thumb angle by 180 and then starting the arc by openingAngle / 2.
-        startAngle = (180 - startAngle) + openingAngle / 2;
-        path.addArc(pathRect, (float) startAngle, arcSweepAngle);
-        Coordinates endPointOfCone = getPointOnTheLineAtDistance(new Coordinates(thumbX, thumbY), new Coordinates(mCircleCenterX, mCircleCenterY), thumbRadius + thumbRadius / 2);
-        path.lineTo(endPointOfCone.x, endPointOfCone.y);
-        path.close();
-        //to get the shadow correct.
-        mCanvasPaint.setShadowLayer(thumbRadius / 4, 0.0f, 0.0f, Color.parseColor("#80454545"));
-        canvas.drawPath(path, mCanvasPaint);
+    private void stopInput() {
+        mIsInputActive = false;
+        mIsInputReleasePending = false;
+        mIsInputKeyDown = false;
+        mPendingInputSteps = 0;
+        mFirstPendingInputTimeMillis = NO_PENDING_MOVE;
+        if (mInputHandler != null) {
+            mInputHandler.removeCallbacks(mInputIdleTask);
+        }
     }
 
-    //called after the view's size is determined.
-    @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        Log.v(TAG, "onSizeChanged called");
-
-        mArcRect.set(mParentViewRect.left + mParentViewPadding, mParentViewRect.top + mParentViewPadding,
-                mParentViewRect.right - mParentViewPadding, mParentViewRect.bottom - mParentViewPadding);
-
-        // use smaller dimension for calculations (depends on parent size)
-        mCircleCenterX = mArcRect.centerX();
-        mCircleCenterY = mArcRect.centerY();
-        mCircleRadius = (int) (mArcRect.width() < mArcRect.height() ? mArcRect.width() / 2 : mArcRect.height() / 2);
+    /**
+     * Lets the user flick the thumb: released with enough speed it keeps moving along the arc and slows down, stopping
+     * at the ends of the arc. onSliderMove keeps coming while it moves and onSliderUp is called once it stops.
+     * Off by default.
+     */
+    public void setFlingEnabled(boolean flingEnabled) {
+        mIsFlingEnabled = flingEnabled;
+        if (!flingEnabled) {
+            stopFling();
+        }
+    }
 
-        super.onSizeChanged(w, h, oldw, oldh);
+    private void trackVelocity(MotionEvent motionEvent) {
+        if (!mIsFlingEnabled) {
+            return;
+        }
+        //one tracker for the lifetime of the view, cleared per gesture.
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+        if (motionEvent.getAction() == MotionEvent.ACTION_DOWN) {
+            mVelocityTracker.clear();
+        }
+        mVelocityTracker.addMovement(motionEvent);
     }
 
-    /**
-     * Invoked when slider starts moving or is currently moving. This method calculates and sets position and angle of the thumb.
-     *
-     * @param touchX Where is the touch identifier now on X axis
-     * @param touchY Where is the touch identifier now on Y axis
-     *               <p/>
-     *               This update happens in the range of -180 to 0 to 180.
-     */
-    private void updateSliderState(Thumb thumb, int touchX, int touchY) {
+    //starts a fling if the thumb was released fast enough, returns whether it did.
+    private boolean startFling(MotionEvent motionEvent) {
+        if (!mIsFlingEnabled || mVelocityTracker == null) {
+            return false;
+        }
+        ViewConfiguration configuration = ViewConfiguration.get(getContext());
+        mVelocityTracker.computeCurrentVelocity(1000, configuration.getScaledMaximumFlingVelocity());
+
+        //angular velocity around the dial center, from the touch velocity where the finger left.
+        float distanceX = motionEvent.getX() - mCircleCenterX;
+        float distanceY = mCircleCenterY - motionEvent.getY(); //y goes up in the human coordinate system.
+        float velocityX = mVelocityTracker.getXVelocity();
+        float velocityY = -mVelocityTracker.getYVelocity();
+        double radiusSquared = distanceX * distanceX + distanceY * distanceY;
+        if (radiusSquared == 0) {
+            return false;
+        }
+        double angularVelocity = (distanceX * velocityY - distanceY * velocityX) / radiusSquared; //radians per second, counter clockwise
+        double tangentialSpeed = Math.abs(angularVelocity) * Math.sqrt(radiusSquared);
+        if (tangentialSpeed < configuration.getScaledMinimumFlingVelocity()) {
+            return false;
+        }
 
-        float distanceX = touchX - mCircleCenterX;
-        float distanceY = mCircleCenterY - touchY; //as you go down the screen the Y coordinate increases.
+        //the sweep goes clockwise.
+        mFlingVelocity = -Math.toDegrees(angularVelocity);
+        mFlingOffset = mGeometry.sweepOffset(mSelectedThumb.mThumbAngle);
+        mFlingLastFrameNanos = -1;
+        mIsFlinging = true;
+        FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+        return true;
+    }
 
-        double radius = Math.sqrt(Math.pow(distanceX, 2) + Math.pow(distanceY, 2));
-        double angle = Math.acos(distanceX / radius);
-        if (distanceY < 0) {
-            angle = -angle;
+    private void stepFling(long frameTimeNanos) {
+        if (mFlingLastFrameNanos < 0) {
+            mFlingLastFrameNanos = frameTimeNanos;
+            FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+            return;
+        }
+        double dt = (frameTimeNanos - mFlingLastFrameNanos) / 1e9;
+        mFlingLastFrameNanos = frameTimeNanos;
+
+        //exact integral of the exponentially decaying velocity over the frame.
+        double decay = Math.exp(-FLING_FRICTION * dt);
+        mFlingOffset += mFlingVelocity * (1 - decay) / FLING_FRICTION;
+        mFlingVelocity *= decay;
+
+        boolean isFinished = Math.abs(mFlingVelocity) < FLING_STOP_VELOCITY;
+        double sweep = mGeometry.getArcSweepAngle();
+        if (mFlingOffset <= 0 || mFlingOffset >= sweep) {
+            //ran into one of the ends of the arc.
+            mFlingOffset = Math.max(0, Math.min(sweep, mFlingOffset));
+            isFinished = true;
         }
 
-        Log.v(TAG, "updateSliderState called: calculated angle: " + getAngleInDegrees(angle));
+        Thumb thumb = mSelectedThumb;
+        double flingAngle = mGeometry.thumbAngleForSweepOffset(mFlingOffset);
+        if (clampThumbAngle(thumb, flingAngle) != flingAngle) {
+            //ran into a neighboring thumb.
+            isFinished = true;
+        }
+        double previousAngle = thumb.mThumbAngle;
+        float previousReading = thumb.mReading;
+        updateSliderBy(thumb, flingAngle);
+        if (previousAngle != thumb.mThumbAngle) {
+            invalidateThumbMovement(thumb, previousAngle, previousReading);
+        }
 
-        updateSliderBy(thumb, angle);
+        if (isFinished) {
+            stopFling();
+        } else {
+            FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+        }
     }
 
-    private void updateSliderBy(Thumb thumb, double angle) {
-        Log.v(TAG, "updating slider by angle in degrees : " + getAngleInDegrees(angle) + " when normalized : " + getPaintSweepNormalizedAngle(angle));
+    //ends a running fling the way a release ends a drag.
+    private void stopFling() {
+        if (!mIsFlinging) {
+            return;
+        }
+        mIsFlinging = false;
+        reportSliderState();
+        setThumbSelected(mSelectedThumb, false);
+        invalidate();
+    }
 
-        if (isValidAngle(angle)) {
-            thumb.mThumbAngle = angle;
-        } else {
+    private void deliverSliderMove(float reading) {
+        long step = mGeometry.stepOf(reading);
+        if ((mDispatchPolicy & DISPATCH_DISTINCT_READINGS) != 0 && mHasDispatchedMove && step == mLastDispatchedMoveReading) {
             return;
         }
+        mHasDispatchedMove = true;
+        mLastDispatchedMoveReading = step;
 
-        thumb.mReading = valueOnTheSlider(thumb.mThumbAngle);
-        if (mListener != null) {
-            mListener.onSliderMove(thumb.mReading);
+        if (mListener == null) {
+            return;
+        }
+        Executor executor = mDispatchExecutor;
+        if (executor != null) {
+            mExecutorMoveReading.set(Float.floatToIntBits(reading));
+            if (mIsExecutorMoveQueued.compareAndSet(false, true)) {
+                executor.execute(mExecutorMoveTask);
+            }
+        } else {
+            dispatchSliderMove(reading);
         }
     }
 
-    //gets the value of the slider from the thumb angle.
-    private int valueOnTheSlider(double thumbAngle) {
-        int offsetFromStart = (int) Math.round(((getPaintSweepNormalizedAngle(thumbAngle) - mArcStartAngle) * getStepSizePerDegree()));
-        return mMin + offsetFromStart;
+    private void dispatchSliderMove(float reading) {
+        SliderInstrumentation instrumentation = mInstrumentation;
+        SliderMetrics metrics = mMetrics;
+        if (instrumentation == null && metrics == null) {
+            mListener.onSliderMove(reading);
+            return;
+        }
+        long startNanos = beginListenerDispatch(instrumentation, metrics);
+        try {
+            mListener.onSliderMove(reading);
+        } finally {
+            endListenerDispatch(instrumentation, metrics, startNanos);
+        }
     }
 
-    //gets the angle from the reading.
-    private double getAngleFromReading(double reading) {
-        if (reading == mMin) {
-            return mThumbAngleLimit1; //since we know mArcStartAngle is in the sweep angle format.
-        } else if (reading == mMax) {
-            return mThumbAngleLimit2;
-        } else {
-            float stepsFromMinReading = (float) (reading - mMin);
-            //stepsFromMinReading / getStepSizePerDegree() returns an angle that is in the paintSweep angle mode, convert that into the normal quadrant mode angle.
-            double offsetAngle = (1 / getStepSizePerDegree()) * stepsFromMinReading;
-            double finalAngleInDegrees = mArcStartAngle + offsetAngle;
-            return 360 - finalAngleInDegrees;
+    private void dispatchSliderUp(float reading) {
+        SliderInstrumentation instrumentation = mInstrumentation;
+        SliderMetrics metrics = mMetrics;
+        if (instrumentation == null && metrics == null) {
+            mListener.onSliderUp(reading);
+            return;
+        }
+        long startNanos = beginListenerDispatch(instrumentation, metrics);
+        try {
+            mListener.onSliderUp(reading);
+        } finally {
+            endListenerDispatch(instrumentation, metrics, startNanos);
         }
     }
 
-    /*
-    * This tries to put the angle in 0 to 360 mode.
-    * Since the sweep angle goes from 0 to 360 and in the clockwise direction.
-    * Takes the angle in radians.
-    *
-    * input angle is in human coordinate system.
-    * output angle is in Android sweep angle coordinate system.
-    * */
-    private double getPaintSweepNormalizedAngle(double angle) {
-        double normalizedAngleInDegrees = 0;
-
-        //TODO: Is there a way to get rid of quadrant here?
-        //-110 degrees
-        if (getAngleInDegrees(angle) < 0 && (Math.abs(getAngleInDegrees(angle)) > 90)) {
-            //the 3rd quadrant i.e. the start arc quadrant
-            //if its negative, we make it positive jus to match the start angle.
-            normalizedAngleInDegrees = Math.abs(getAngleInDegrees(angle));
-        } else if (getAngleInDegrees(angle) < 0 && (Math.abs(getAngleInDegrees(angle)) < 90)) {
-            //4th quadrant, -80degrees
-            normalizedAngleInDegrees = (360 + Math.abs(getAngleInDegrees(angle)));
-        } else {
-            //anywhere in the first two quadrants.
-            normalizedAngleInDegrees = (360 - getAngleInDegrees(angle));
+    private long beginListenerDispatch(SliderInstrumentation instrumentation, SliderMetrics metrics) {
+        if (instrumentation != null) {
+            instrumentation.beginSection(SliderInstrumentation.SECTION_LISTENER_DISPATCH);
         }
+        return metrics != null ? System.nanoTime() : 0;
+    }
 
-        return normalizedAngleInDegrees;
+    private void endListenerDispatch(SliderInstrumentation instrumentation, SliderMetrics metrics, long startNanos) {
+        if (metrics != null) {
+            metrics.getListenerDispatchDuration().record(System.nanoTime() - startNanos);
+        }
+        if (instrumentation != null) {
+            instrumentation.endSection(SliderInstrumentation.SECTION_LISTENER_DISPATCH);
+        }
     }
 
-    private double getStepSizePerDegree() {
-        return (mMax - mMin) / mArcSweepAngle;
+    private void dispatchThumbSelected() {
+        SliderInstrumentation instrumentation = mInstrumentation;
+        SliderMetrics metrics = mMetrics;
+        if (instrumentation == null && metrics == null) {
+            mListener.onThumbSelected();
+            return;
+        }
+        long startNanos = beginListenerDispatch(instrumentation, metrics);
+        try {
+            mListener.onThumbSelected();
+        } finally {
+            endListenerDispatch(instrumentation, metrics, startNanos);
+        }
     }
 
     private double getAngleInDegrees(double angleInRadians) {
@@ -379,42 +1349,64 @@ public class Slider extends View {
     @Override
     @SuppressWarnings("NullableProblems")
     public boolean onTouchEvent(MotionEvent motionEvent) {
-        Log.v(TAG, "onTouch called!");
+        SliderInstrumentation instrumentation = mInstrumentation;
+        if (instrumentation == null) {
+            return handleTouchEvent(motionEvent);
+        }
+        instrumentation.beginSection(SliderInstrumentation.SECTION_TOUCH);
+        try {
+            return handleTouchEvent(motionEvent);
+        } finally {
+            instrumentation.endSection(SliderInstrumentation.SECTION_TOUCH);
+        }
+    }
+
+    private boolean handleTouchEvent(MotionEvent motionEvent) {
         if (mRemoveThumb) {
             return true;
         }
         switch (motionEvent.getAction()) {
             case MotionEvent.ACTION_DOWN: {
+                //catching a flinging thumb ends the fling (and reports where it stopped) before anything else, the same
+                //for a thumb being turned by rotary or key input.
+                stopFling();
+                endInput();
                 //if we dont have a thumb
                 // start moving the thumb (this is the first touch)
                 int x = (int) motionEvent.getX();
                 int y = (int) motionEvent.getY();
-                //making sure the user has touched the thumb
-
-                if (x < mThumb.mX + HIT_CONST && x > mThumb.mX - HIT_CONST && y < mThumb.mY + HIT_CONST && y > mThumb.mY - HIT_CONST) {
-                    if (mThumb.mIsThumbEnabled) {
-                        recordOldState();
-                        setThumbSelected(true);
-                        invalidate();
-                    }
+                //making sure the user has touched a thumb
+                Thumb thumb = findThumbAt(x, y);
+                if (thumb != null) {
+                    recordOldState(thumb);
+                    setThumbSelected(thumb, true);
+                    trackVelocity(motionEvent);
+                    invalidate();
                 }
                 break;
             }
 
             case MotionEvent.ACTION_MOVE: {
                 //to move action down event will happen first and hence one of the thumbs should get selected and we move only then
-                if (mThumb.mIsThumbSelected) {
-                    onSliderActionMove(mThumb, motionEvent);
-                    invalidate();
+                if (mSelectedThumb != null) {
+                    trackVelocity(motionEvent);
+                    int count = copySamples(motionEvent);
+                    onMoveSamples(mSampleX, mSampleY, mSampleTime, count);
                 }
                 break;
             }
 
             case MotionEvent.ACTION_UP: {
                 //when action up event happens, wait for commit command present inside the Consumer to call invalidate
-                if (mThumb.mIsThumbSelected && isValidAngle(mThumb.mThumbAngle)) {
+                Thumb thumb = mSelectedThumb;
+                if (thumb != null && isValidAngle(thumb.mThumbAngle)) {
+                    trackVelocity(motionEvent);
+                    if (startFling(motionEvent)) {
+                        //the thumb stays selected until the fling stops.
+                        break;
+                    }
                     reportSliderState();
-                    setThumbSelected(false);
+                    setThumbSelected(thumb, false);
                     invalidate();
                 }
                 break;
@@ -424,118 +1416,600 @@ public class Slider extends View {
         return true;
     }
 
+    /*
+     * The enabled thumb under the touch point or null. The touch angle is looked up in the sorted sweep offsets, only
+     * the thumbs right below and right above it can be the closest one, on a full circle across the seam as well. Of
+     * thumbs stacked on the same spot the one that can move towards the touch is picked.
+     */
+    private Thumb findThumbAt(int x, int y) {
+        double angle = mGeometry.angleAt(x, y);
+        if (Double.isNaN(angle) || mThumbCount == 0) {
+            return null;
+        }
+        //continuous over the arc, the discontinuity lies in the middle of the gap between the arc ends.
+        double touchOffset = mGeometry.sweepOffset(angle);
+
+        //first thumb past the touch.
+        int low = 0;
+        int high = mThumbCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mThumbSweepOffsets[middle] <= touchOffset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        Thumb below = low > 0 ? mThumbs[low - 1] : null;
+        Thumb above = low < mThumbCount ? mThumbs[low] : null;
+        double belowOffset = below != null ? mThumbSweepOffsets[low - 1] : 0;
+        double aboveOffset = above != null ? mThumbSweepOffsets[low] : 0;
+        if (mGeometry.isFullCircle()) {
+            //min and max meet, past the last thumb the next one is the first thumb across the seam and the other way.
+            if (below == null) {
+                below = mThumbs[mThumbCount - 1];
+                belowOffset = mThumbSweepOffsets[mThumbCount - 1] - 360;
+            } else if (above == null) {
+                above = mThumbs[0];
+                aboveOffset = mThumbSweepOffsets[0] + 360;
+            }
+        }
+        if (below != null && above != null && aboveOffset - touchOffset < touchOffset - belowOffset) {
+            Thumb closer = above;
+            above = below;
+            below = closer;
+        }
+        //below now is the closer one.
+        if (isThumbHit(below, x, y)) {
+            return below;
+        }
+        return isThumbHit(above, x, y) ? above : null;
+    }
+
+    private boolean isThumbHit(Thumb thumb, int x, int y) {
+        if (thumb == null || !thumb.mIsThumbEnabled) {
+            return false;
+        }
+        //from the angle, thumbs outside of the repainted area don't get their drawn position updated.
+        int thumbX = mGeometry.thumbX(thumb.mThumbAngle);
+        int thumbY = mGeometry.thumbY(thumb.mThumbAngle);
+        return x < thumbX + HIT_CONST && x > thumbX - HIT_CONST && y < thumbY + HIT_CONST && y > thumbY - HIT_CONST;
+    }
+
     private void reportSliderState() {
-        if (mThumb.mIsThumbSelected) {
+        Thumb thumb = mSelectedThumb;
+        if (thumb != null) {
+            flushPendingSliderMove();
             if (mListener != null) {
-                mListener.onSliderUp(mThumb.mReading);
+                deliverSliderUp(thumb.mReading);
             }
         }
     }
 
-    private void setThumbSelected(boolean selected) {
-        if (mThumb.mIsThumbEnabled) {
-            mThumb.mIsThumbSelected = selected;
+    private void deliverSliderUp(final float reading) {
+        Executor executor = mDispatchExecutor;
+        if (executor == null) {
+            dispatchSliderUp(reading);
+            return;
+        }
+        //not conflated, every release gets its own callback.
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                IListenForSliderState listener = mListener;
+                if (listener != null) {
+                    listener.onSliderUp(reading);
+                }
+            }
+        });
+    }
+
+    private void setThumbSelected(Thumb thumb, boolean selected) {
+        if (thumb != null && thumb.mIsThumbEnabled) {
+            thumb.mIsThumbSelected = selected;
+            mSelectedThumb = selected ? thumb : null;
+            if (selected) {
+                //the user wins over a programmatic animation, the thumb stays where it was grabbed.
+                cancelThumbAnimation();
+                //a new drag, moves are deduplicated against the reading the thumb was picked up at.
+                mHasDispatchedMove = true;
+                mLastDispatchedMoveReading = mGeometry.stepOf(thumb.mReading);
+            }
             if (mListener != null && selected) {
-                mListener.onThumbSelected();
+                if (mDispatchExecutor != null) {
+                    mDispatchExecutor.execute(mExecutorThumbSelectedTask);
+                } else {
+                    dispatchThumbSelected();
+                }
+            }
+        }
+    }
+
+    //copies the samples of the move event, oldest first, into the sample arrays and returns how many there are.
+    private int copySamples(MotionEvent motionEvent) {
+        int historySize = motionEvent.getHistorySize();
+        ensureSampleCapacity(historySize + 1);
+        for (int pos = 0; pos < historySize; pos++) {
+            mSampleX[pos] = motionEvent.getHistoricalX(pos);
+            mSampleY[pos] = motionEvent.getHistoricalY(pos);
+            mSampleTime[pos] = motionEvent.getHistoricalEventTime(pos);
+        }
+        mSampleX[historySize] = motionEvent.getX();
+        mSampleY[historySize] = motionEvent.getY();
+        mSampleTime[historySize] = motionEvent.getEventTime();
+        return historySize + 1;
+    }
+
+    //the samples of a move event of the dragged thumb, oldest first. Robolectric's events carry no history.
+    void onMoveSamples(float[] x, float[] y, long[] eventTimes, int count) {
+        Thumb thumb = mSelectedThumb;
+        if (thumb == null) {
+            return;
+        }
+        double previousAngle = thumb.mThumbAngle;
+        float previousReading = thumb.mReading;
+        onSliderActionMove(thumb, x, y, eventTimes, count);
+        if (previousAngle != thumb.mThumbAngle) {
+            recordMove(eventTimes[count - 1]);
+            invalidateThumbMovement(thumb, previousAngle, previousReading);
+        }
+    }
+
+    /**
+     * Invoked when slider starts moving or is currently moving. This method calculates and sets position and angle of the thumb.
+     * <p/>
+     * A move event batches every touch sample since the previous one, on high rate digitizers that is several of them.
+     * All samples are folded into a single state update: the thumb goes to the last sample that lies on the arc and
+     * the reading is computed (and dispatched) once per event.
+     * <p/>
+     * The angles are in the range of -180 to 0 to 180.
+     */
+    private void onSliderActionMove(Thumb thumb, float[] x, float[] y, long[] eventTimes, int count) {
+        double angle = Double.NaN;
+        for (int pos = 0; pos < count; pos++) {
+            double sampleAngle = mGeometry.angleAt((int) x[pos], (int) y[pos]);
+            if (mGeometry.isValidAngle(sampleAngle)) {
+                angle = sampleAngle;
             }
         }
+
+        IListenForSliderSamples sampleListener = mSampleListener;
+        if (sampleListener != null) {
+            sampleListener.onSliderSamples(x, y, eventTimes, count);
+        }
+        if (!Double.isNaN(angle)) {
+            updateSliderBy(thumb, angle);
+        }
     }
 
-    private void onSliderActionMove(Thumb thumb, MotionEvent motionEvent) {
-        int x = (int) motionEvent.getX();
-        int y = (int) motionEvent.getY();
-        updateSliderState(thumb, x, y);
+    //the sample arrays only grow, so steady state move events don't allocate.
+    private void ensureSampleCapacity(int count) {
+        if (mSampleX.length < count) {
+            int capacity = Math.max(count, mSampleX.length * 2);
+            mSampleX = new float[capacity];
+            mSampleY = new float[capacity];
+            mSampleTime = new long[capacity];
+        }
     }
 
-    private void recordOldState() {
-        mThumb.mOldThumbAngle = mThumb.mThumbAngle;
-        mThumb.mOldThumbX = mThumb.mX;
-        mThumb.mOldThumbY = mThumb.mY;
-        mThumb.mLastReading = mThumb.mReading;
+    private void recordOldState(Thumb thumb) {
+        thumb.mOldThumbAngle = thumb.mThumbAngle;
+        thumb.mOldThumbX = thumb.mX;
+        thumb.mOldThumbY = thumb.mY;
+        thumb.mLastReading = thumb.mReading;
     }
 
     public void setThumbAngle(Thumb thumb, double angleInDegrees) {
         double thumbAngle = getAngleInRadians(angleInDegrees);
         thumb.mThumbAngle = thumbAngle;
         thumb.mOldThumbAngle = thumbAngle;
+        updateThumbSweepOffset(thumb);
+    }
+
+    //call whenever a thumb angle changes, keeps the hit test index current.
+    private void updateThumbSweepOffset(Thumb thumb) {
+        mThumbSweepOffsets[thumb.mIndex] = mGeometry.sweepOffset(thumb.mThumbAngle);
+    }
+
+    //the thumb angle closest to the given one that keeps the thumb in order with (and mMinThumbGap away from) its neighbors.
+    private double clampThumbAngle(Thumb thumb, double thumbAngle) {
+        if (mThumbCount < 2) {
+            return thumbAngle;
+        }
+        double gap = mMinThumbGap > 0 ? mMinThumbGap * mGeometry.getDegreesPerStep() : 0;
+        double sweepOffset = mGeometry.sweepOffset(thumbAngle);
+        double clampedOffset = sweepOffset;
+        if (thumb.mIndex > 0) {
+            clampedOffset = Math.max(clampedOffset, mThumbSweepOffsets[thumb.mIndex - 1] + gap);
+        }
+        if (thumb.mIndex < mThumbCount - 1) {
+            clampedOffset = Math.min(clampedOffset, mThumbSweepOffsets[thumb.mIndex + 1] - gap);
+        }
+        return clampedOffset == sweepOffset ? thumbAngle : mGeometry.thumbAngleForSweepOffset(clampedOffset);
     }
 
     /*this angle calculation is in radians
         And it goes between 0 to 180 and 0 to -180.
      */
     boolean isValidAngle(double angle) {
-        boolean isValid = false;
-        double limit1 = getArcLimit1(); //-2.09
-        //covers the arc in the third quadrant where the angle goes from -90 to -180
-        if (angle <= limit1 && angle >= -Math.PI) {
-            isValid = true;
-        }
-        double limit2 = getArcLimit2();//-0.916
-        if (angle < Math.PI && angle >= limit2) {
-            isValid = true;
+        return mGeometry.isValidAngle(angle);
+    }
+
+    //for a slider drawn off the UI thread, the shared style's caches are filled by UI thread draws.
+    void usePrivateStyle() {
+        mStyle = mStyle.asPrivate();
+        mDialLayer = null;
+    }
+
+    SliderStyle getStyle() {
+        return mStyle;
+    }
+
+    public void setArcColor(int arcColor) {
+        if (mStyle.getArcColor() != arcColor) {
+            //the cached dial layer is a mask, recoloring it does not need a rebuild.
+            mStyle = mStyle.withArcColor(arcColor);
+            invalidate();
         }
+    }
 
-        return isValid;
+    /**
+     * Draws the given drawable as the thumb instead of the tear drop, or the tear drop again when null. The drawable is
+     * rasterized once at the thumb size and blitted on every frame, call this again after changing the drawable.
+     */
+    public void setThumbImage(Drawable thumbImage) {
+        mThumbImage = thumbImage;
+        //forces the rasterization even if it is the same drawable.
+        mThumbImageCache.prepare(null, 0, false, 0);
+        invalidate();
     }
 
-    //theta / 360 * 2*PI*R
-    private double getArcLimit2() {
-        return -((360 - mArcSweepAngle) * Math.PI) / 180;
+    /**
+     * Tints the thumb image with the thumb_color, keeping only its shape (alpha). Same as the thumb_image_tinted
+     * attribute.
+     */
+    public void setThumbImageTinted(boolean tinted) {
+        if (mIsThumbImageTinted != tinted) {
+            mIsThumbImageTinted = tinted;
+            invalidate();
+        }
     }
 
-    private double getArcLimit1() {
-        return -(mArcStartAngle * Math.PI) / 180;
+    /**
+     * Fills the dial arc from min up to the thumb, or between the first and the last thumb when there are several.
+     * One color fills it solid, more colors make a gradient spread evenly along the whole arc from its start to its
+     * end, the fill shows the part of it it covers. No colors (or null) removes the fill. Same as the progress_color
+     * and progress_end_color attributes.
+     * <p/>
+     * The gradient is built once per size and arc, drawing the fill costs one arc per frame either way.
+     */
+    public void setProgressColors(int... colors) {
+        if (colors == null || colors.length == 0) {
+            mProgressFill = null;
+        } else if (mProgressFill == null) {
+            mProgressFill = new ProgressFill(colors);
+        } else {
+            mProgressFill.setColors(colors);
+        }
+        invalidate();
     }
 
-    private int getArcColor() {
-        return mArcColor;
+    //the progress fill colors, empty if there is no fill.
+    public int[] getProgressColors() {
+        return mProgressFill != null ? mProgressFill.getColors() : new int[0];
     }
 
     public void setRemoveThumb(boolean removeThumb) {
         mRemoveThumb = removeThumb;
     }
 
+    /**
+     * Thread safe, lock free version of {@link #setThumbReading(float)} that also redraws the slider.
+     * Can be called from any thread at any rate: only the latest reading is kept and the UI thread picks it up once
+     * per frame. Readings posted while the user is dragging the thumb are dropped, the user wins. A slider that is not
+     * attached to a window picks them up on the main thread.
+     */
+    public void postThumbReading(float reading) {
+        long current;
+        long next;
+        do {
+            current = mPostedReading.get();
+            long sequence = (current >>> 32) + 1;
+            next = (sequence << 32) | (Float.floatToRawIntBits(reading) & 0xFFFFFFFFL);
+        } while (!mPostedReading.compareAndSet(current, next));
+
+        if (mIsPostedReadingScheduled.compareAndSet(false, true)) {
+            RenderHost renderHost = mRenderHost;
+            if (renderHost != null) {
+                renderHost.post(mConsumePostedReadingTask);
+            } else if (getHandler() == null) {
+                mMainHandler.post(mConsumePostedReadingTask);
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                postOnAnimation(mConsumePostedReadingTask);
+            } else {
+                post(mConsumePostedReadingTask);
+            }
+        }
+    }
+
+    private void consumePostedReading() {
+        //clear the flag before reading, a reading posted from now on schedules another pass.
+        mIsPostedReadingScheduled.set(false);
+        long posted = mPostedReading.get();
+        int sequence = (int) (posted >>> 32);
+        if (sequence == mConsumedReadingSequence) {
+            return;
+        }
+        mConsumedReadingSequence = sequence;
+
+        float reading = Float.intBitsToFloat((int) posted);
+        Thumb thumb = mThumbs[0];
+        if (thumb.mIsThumbSelected || reading == thumb.mReading) {
+            return;
+        }
+        moveThumbTo(thumb, reading);
+    }
+
+    /*
+     * A reading handed over by a SliderGroup, on this slider's thread. Applied like a posted reading but only when it
+     * changes what is shown, the reading rounded to a step. Returns whether the slider changed (and was invalidated).
+     */
+    boolean applyGroupReading(float reading) {
+        Thumb thumb = mThumbs[0];
+        if (thumb.mIsThumbSelected || mGeometry.stepOf(reading) == mGeometry.stepOf(thumb.mReading)) {
+            return false;
+        }
+        moveThumbTo(thumb, reading);
+        return true;
+    }
+
+    //sets the reading programmatically and repaints just the thumb movement.
+    private void moveThumbTo(Thumb thumb, float reading) {
+        double previousAngle = thumb.mThumbAngle;
+        float previousReading = thumb.mReading;
+        setThumbReading(thumb.mIndex, reading);
+        if (getWidth() > 0 && getHeight() > 0) {
+            invalidateThumbMovement(thumb, previousAngle, previousReading);
+        } else {
+            invalidate();
+        }
+    }
+
+    /**
+     * Moves the thumb to the reading over the next frames instead of jumping there, see
+     * {@link #setThumbAnimationInterpolator(TimeInterpolator, long)} and {@link #setThumbAnimationSpring(float, float)}
+     * for how it gets there. The animation is cancelled (the thumb stays where it is) when the user grabs the thumb and
+     * replaced by any later setThumbReading / postThumbReading / animateThumbReading call. No listener callbacks are
+     * made, just like for setThumbReading.
+     */
+    public void animateThumbReading(float reading) {
+        Thumb thumb = mThumbs[0];
+        if (thumb.mIsThumbSelected) {
+            return;
+        }
+        double fromOffset = mIsThumbAnimating ? mThumbAnimationOffset : mGeometry.sweepOffset(thumb.mThumbAngle);
+        double toOffset = mGeometry.sweepOffset(mGeometry.thumbAngleForReading(reading));
+        if (!mIsThumbAnimating) {
+            mThumbAnimationVelocity = 0;
+        }
+        mThumbAnimationFromOffset = fromOffset;
+        mThumbAnimationOffset = fromOffset;
+        mThumbAnimationToOffset = toOffset;
+        mThumbAnimationToReading = reading;
+        //the clock starts with the first frame.
+        mThumbAnimationStartNanos = -1;
+        mIsThumbAnimating = true;
+        FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+    }
+
+    /**
+     * Time based thumb animations (the default: 300ms, decelerating) for {@link #animateThumbReading(float)}.
+     */
+    public void setThumbAnimationInterpolator(TimeInterpolator interpolator, long durationMs) {
+        mThumbAnimationInterpolator = interpolator != null ? interpolator : DEFAULT_THUMB_ANIMATION_INTERPOLATOR;
+        mThumbAnimationDurationNanos = Math.max(durationMs, 0) * 1000000;
+        mSpringStiffness = 0;
+    }
+
+    /**
+     * Spring based thumb animations for {@link #animateThumbReading(float)}: the thumb is pulled towards the reading by
+     * a spring of the given stiffness (e.g. 200 for a soft, 1500 for a stiff spring) and damping ratio (1 for no
+     * overshoot, less to bounce). Retargeting a running spring keeps its velocity.
+     */
+    public void setThumbAnimationSpring(float stiffness, float dampingRatio) {
+        if (stiffness <= 0 || dampingRatio <= 0) {
+            throw new IllegalArgumentException("stiffness and damping ratio must be positive");
+        }
+        mSpringStiffness = stiffness;
+        mSpringDampingRatio = dampingRatio;
+    }
+
+    public void cancelThumbAnimation() {
+        mIsThumbAnimating = false;
+    }
+
+    private void stepThumbAnimation(long frameTimeNanos) {
+        if (mThumbAnimationStartNanos < 0) {
+            mThumbAnimationStartNanos = frameTimeNanos;
+            mThumbAnimationLastFrameNanos = frameTimeNanos;
+        }
+
+        boolean isFinished;
+        if (mSpringStiffness > 0) {
+            isFinished = stepSpring(frameTimeNanos - mThumbAnimationLastFrameNanos);
+        } else {
+            long elapsed = frameTimeNanos - mThumbAnimationStartNanos;
+            float fraction = mThumbAnimationDurationNanos > 0 ? Math.min(1f, elapsed / (float) mThumbAnimationDurationNanos) : 1f;
+            float interpolated = mThumbAnimationInterpolator.getInterpolation(fraction);
+            mThumbAnimationOffset = mThumbAnimationFromOffset + (mThumbAnimationToOffset - mThumbAnimationFromOffset) * interpolated;
+            isFinished = fraction >= 1f;
+        }
+        mThumbAnimationLastFrameNanos = frameTimeNanos;
+
+        Thumb thumb = mThumbs[0];
+        double previousAngle = thumb.mThumbAngle;
+        float previousReading = thumb.mReading;
+        if (isFinished) {
+            mIsThumbAnimating = false;
+            applyThumbReading(thumb, mThumbAnimationToReading);
+        } else {
+            double thumbAngle = clampThumbAngle(thumb, mGeometry.thumbAngleForSweepOffset(mThumbAnimationOffset));
+            thumb.mThumbAngle = thumbAngle;
+            thumb.mOldThumbAngle = thumbAngle;
+            thumb.mReading = mGeometry.readingAt(thumbAngle);
+            thumb.mLastReading = thumb.mReading;
+            updateThumbSweepOffset(thumb);
+            FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+        }
+        invalidateThumbMovement(thumb, previousAngle, previousReading);
+    }
+
+    //damped spring, integrated with semi implicit euler in small steps. Returns whether the thumb came to rest.
+    private boolean stepSpring(long elapsedNanos) {
+        double damping = 2 * mSpringDampingRatio * Math.sqrt(mSpringStiffness);
+        //a long stall (e.g. the app was in the background) shouldn't turn into a huge jump.
+        long remaining = Math.min(elapsedNanos, 100000000);
+        while (remaining > 0) {
+            long step = Math.min(remaining, SPRING_MAX_STEP_NANOS);
+            double dt = step / 1e9;
+            double acceleration = -mSpringStiffness * (mThumbAnimationOffset - mThumbAnimationToOffset) - damping * mThumbAnimationVelocity;
+            mThumbAnimationVelocity += acceleration * dt;
+            mThumbAnimationOffset += mThumbAnimationVelocity * dt;
+            remaining -= step;
+        }
+        return Math.abs(mThumbAnimationOffset - mThumbAnimationToOffset) < SPRING_REST_OFFSET
+                && Math.abs(mThumbAnimationVelocity) < SPRING_REST_VELOCITY;
+    }
+
     public void setThumbReading(float reading) {
-        mThumb.mReading = reading;
-        mThumb.mLastReading = reading;
-        setThumbAngle(mThumb, getAngleFromReading(mThumb.mReading));
+        setThumbReading(0, reading);
+    }
+
+    /**
+     * Sets the reading of one of the thumbs. Thumbs don't pass each other, a reading beyond a neighboring thumb (or
+     * closer to it than the minimum gap) stops the thumb there. See {@link #setThumbReadings(float...)} to move
+     * several thumbs past each other at once.
+     */
+    public void setThumbReading(int thumbIndex, float reading) {
+        checkThumbIndex(thumbIndex);
+        cancelThumbAnimation();
+        applyThumbReading(mThumbs[thumbIndex], reading);
+    }
+
+    /**
+     * Sets the readings of the first readings.length thumbs at once, the readings have to be in ascending order.
+     */
+    public void setThumbReadings(float... readings) {
+        if (readings.length > mThumbCount) {
+            throw new IllegalArgumentException("Only " + mThumbCount + " thumbs for " + readings.length + " readings");
+        }
+        for (int i = 1; i < readings.length; i++) {
+            if (readings[i] < readings[i - 1]) {
+                throw new IllegalArgumentException("Readings must be in ascending order");
+            }
+        }
+        cancelThumbAnimation();
+        //unclamped: readings past a neighbor that is about to be moved as well are fine.
+        for (int i = 0; i < readings.length; i++) {
+            mThumbSweepOffsets[i] = mGeometry.sweepOffset(mGeometry.thumbAngleForReading(readings[i]));
+        }
+        for (int i = 0; i < readings.length; i++) {
+            applyThumbReading(mThumbs[i], readings[i]);
+        }
+        invalidate();
     }
 
-    private class Coordinates {
-        float x;
-        float y;
+    public float getThumbReading(int thumbIndex) {
+        checkThumbIndex(thumbIndex);
+        return mThumbs[thumbIndex].mReading;
+    }
+
+    private void checkThumbIndex(int thumbIndex) {
+        if (thumbIndex < 0 || thumbIndex >= mThumbCount) {
+            throw new IndexOutOfBoundsException("Thumb " + thumbIndex + " of " + mThumbCount);
+        }
+    }
 
-        public Coordinates() {
+    private void applyThumbReading(Thumb thumb, float reading) {
+        double thumbAngle = mSnapToReadings ? mGeometry.thumbAngleForReading(reading)
+                : getAngleInRadians(mGeometry.angleForReading(reading));
+        double clampedAngle = clampThumbAngle(thumb, thumbAngle);
+        if (clampedAngle != thumbAngle) {
+            //ran into a neighboring thumb, it stops there.
+            reading = mGeometry.readingAt(clampedAngle);
+            thumbAngle = mSnapToReadings ? mGeometry.thumbAngleForReading(reading) : clampedAngle;
         }
+        thumb.mReading = reading;
+        thumb.mLastReading = reading;
+        thumb.mThumbAngle = thumbAngle;
+        thumb.mOldThumbAngle = thumbAngle;
+        updateThumbSweepOffset(thumb);
+    }
 
-        public Coordinates(float xCord, float yCord) {
-            x = xCord;
-            y = yCord;
+    /**
+     * Sets how many thumbs share the arc, from 1 (the default) to 64, e.g. 2 for a range. Added thumbs are spread out
+     * between the last thumb and the end of the arc, removed ones are taken from the end.
+     */
+    public void setThumbCount(int thumbCount) {
+        if (thumbCount < 1 || thumbCount > MAX_THUMB_COUNT) {
+            throw new IllegalArgumentException("Thumb count must be between 1 and " + MAX_THUMB_COUNT + ": " + thumbCount);
+        }
+        if (thumbCount == mThumbCount) {
+            return;
+        }
+        cancelThumbAnimation();
+        if (mSelectedThumb != null && mSelectedThumb.mIndex >= thumbCount) {
+            mIsFlinging = false;
+            stopInput();
+            setThumbSelected(mSelectedThumb, false);
         }
+        int previousCount = mThumbCount;
+        initializeThumbs(thumbCount);
+        spreadThumbs(previousCount);
+        invalidate();
+    }
+
+    public int getThumbCount() {
+        return mThumbCount;
+    }
+
+    /**
+     * The index of the thumb being dragged, -1 if none is. Listener callbacks made on the UI thread can use it to
+     * tell which thumb the reading belongs to.
+     */
+    public int getSelectedThumbIndex() {
+        Thumb thumb = mSelectedThumb;
+        return thumb != null ? thumb.mIndex : -1;
     }
 
-    private void initCanvasPaint() {
-        if (mCanvasPaint == null) {
-            mCanvasPaint = new Paint();
+    /**
+     * Keeps neighboring thumbs at least minThumbGap readings apart while they are dragged or set, 0 (the default) lets
+     * them meet.
+     */
+    public void setMinThumbGap(int minThumbGap) {
+        if (minThumbGap < 0) {
+            throw new IllegalArgumentException("The gap can't be negative: " + minThumbGap);
         }
-        setPaintPropertiesForDialArc();
+        mMinThumbGap = minThumbGap;
     }
 
-    private void setPaintPropertiesForDialArc() {
-        mCanvasPaint.reset();
-        mCanvasPaint.setStrokeWidth(mStrokeWidth);
-        mCanvasPaint.setStyle(Paint.Style.STROKE);
-        mCanvasPaint.setStrokeCap(Paint.Cap.SQUARE);
-        mCanvasPaint.setAntiAlias(true);
+    public void setThumbEnabled(int thumbIndex, boolean enabled) {
+        checkThumbIndex(thumbIndex);
+        mThumbs[thumbIndex].mIsThumbEnabled = enabled;
     }
 
-    private void initTextPaint() {
-        if (mTextPaint == null) {
-            mTextPaint = new TextPaint();
+    //places the thumbs from index first on evenly spaced readings between the thumb before them and the end of the arc.
+    private void spreadThumbs(int first) {
+        if (first <= 0 || first >= mThumbCount) {
+            return;
+        }
+        float from = mThumbs[first - 1].mReading;
+        float step = (mGeometry.getMax() - from) / (mThumbCount - first);
+        for (int i = first; i < mThumbCount; i++) {
+            float reading = from + step * (i - first + 1);
+            applyThumbReading(mThumbs[i], mSnapToReadings ? mGeometry.snapToStep(reading) : reading);
         }
-        mTextPaint.reset();
-        mTextPaint.setTextSize(48);
-        mTextPaint.setAntiAlias(true);
     }
 
     private int dpToPixels(int dpValue) {
@@ -543,66 +2017,86 @@ public class Slider extends View {
         return Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dpValue, metrics));
     }
 
-    private void initializeThumbs() {
-        mThumb = new Thumb();
-        mThumb.reset();
+    //grows or shrinks the thumbs to thumbCount.
+    private void initializeThumbs(int thumbCount) {
+        if (mThumbs.length < thumbCount) {
+            Thumb[] thumbs = new Thumb[thumbCount];
+            System.arraycopy(mThumbs, 0, thumbs, 0, mThumbCount);
+            mThumbs = thumbs;
+            double[] sweepOffsets = new double[thumbCount];
+            System.arraycopy(mThumbSweepOffsets, 0, sweepOffsets, 0, mThumbCount);
+            mThumbSweepOffsets = sweepOffsets;
+        }
+        for (int i = mThumbCount; i < thumbCount; i++) {
+            Thumb thumb = new Thumb(i);
+            thumb.reset();
+            mThumbs[i] = thumb;
+            //not placed yet, must not hold back the thumbs before it.
+            mThumbSweepOffsets[i] = Double.POSITIVE_INFINITY;
+        }
+        for (int i = thumbCount; i < mThumbCount; i++) {
+            mThumbs[i] = null;
+        }
+        mThumbCount = thumbCount;
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         Log.v(TAG, "onMeasure called");
         //need at least this much
-        int minWidth = 100;
-        int minHeight = 100;
-
-        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
-        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+        int width = measureDimension(widthMeasureSpec, 100);
+        int height = measureDimension(heightMeasureSpec, 100);
 
-        int width;
-        int height;
+        //left bottom diagonal and right top diagonal coordinates.
+        float halfStrokeWidth = mStyle.getStrokeWidth() / 2f;
+        mParentViewRect.set(halfStrokeWidth, halfStrokeWidth, width - halfStrokeWidth, MeasureSpec.getSize(heightMeasureSpec) - halfStrokeWidth);
 
-        //Measure Width
-        if (widthMode == MeasureSpec.EXACTLY) {
-            //Must be this size
-            width = widthSize;
-        } else if (widthMode == MeasureSpec.AT_MOST) {
-            //Can't be bigger than...
-            width = Math.min(minWidth, widthSize);
-        } else {
-            //Be whatever you want
-            width = minWidth;
-        }
+        //MUST CALL THIS
+        setMeasuredDimension(width, height);
+    }
 
-        //Measure Height
-        if (heightMode == MeasureSpec.EXACTLY) {
+    //the slider's size along one dimension, shared with SliderTextureView which measures like the slider.
+    static int measureDimension(int measureSpec, int minSize) {
+        int mode = MeasureSpec.getMode(measureSpec);
+        int size = MeasureSpec.getSize(measureSpec);
+        if (mode == MeasureSpec.EXACTLY) {
             //Must be this size
-            height = heightSize;
-        } else if (heightMode == MeasureSpec.AT_MOST) {
+            return size;
+        } else if (mode == MeasureSpec.AT_MOST) {
             //Can't be bigger than...
-            height = Math.min(minHeight, heightSize);
+            return Math.min(minSize, size);
         } else {
             //Be whatever you want
-            height = minHeight;
+            return minSize;
         }
-
-        //left bottom diagonal and right top diagonal coordinates.
-        mParentViewRect.set(mStrokeWidth / 2f, mStrokeWidth / 2f, width - mStrokeWidth / 2f, MeasureSpec.getSize(heightMeasureSpec) - mStrokeWidth / 2f);
-
-        //MUST CALL THIS
-        setMeasuredDimension(width, height);
     }
 
     @Override
-    public void invalidate() {
-        Log.v(TAG + "EVENT", "invalidate called!");
-        super.invalidate();
-        initCanvasPaint();
-        initTextPaint();
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        release();
+    }
+
+    //stops everything that runs on frames of the current thread, a hosted slider's host calls it when it goes away.
+    void release() {
+        if (mIsThumbAnimating) {
+            //no more frames are coming, land on the target.
+            setThumbReading(mThumbAnimationToReading);
+        }
+        stopFling();
+        endInput();
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+        //last, landing the thumb and ending the input post frames of their own.
+        FrameTicker.getInstance().removeFrameCallback(mFrameCallback);
+        mIsMoveDispatchPending = false;
     }
 
     private class Thumb {
+        //position along the arc, thumbs keep their order.
+        private final int mIndex;
         //the following two values gets updated everytime the thumb moves.
         private int mX = -1;
         private int mY = -1;
@@ -616,11 +2110,13 @@ public class Slider extends View {
         private float mLastReading = 0;
         private float mReading = 0;
 
-        private int mThumbReadingTextColor;// this is also used to set the color of the arc between the thumbs.
-
         private boolean mIsThumbSelected = false;
         public boolean mIsThumbEnabled = true;
 
+        Thumb(int index) {
+            mIndex = index;
+        }
+
         public void reset() {
             mX = -1;
             mY = -1;
@@ -0,0 +1,432 @@
+package san.radialslider;
+
+/*
+ * The math behind the slider: touch point -> thumb angle -> reading and back.
+ * Kept free of android classes, everything that depends on the arc or the range is computed once when they change so
+ * that a move event costs a single atan2 and a few multiplications.
+ *
+ * Two angle systems are involved:
+ * the thumb angle is in radians in the human coordinate system (counter clockwise, y up) and goes from -PI to PI,
+ * the sweep angle is in degrees in the android canvas coordinate system (clockwise, y down) and lies on the arc
+ * between the arc start angle and arc start + sweep angle.
+ * The arc can start anywhere and sweep up to a full circle. Its limits in both systems are derived once in setArc();
+ * sweep offsets (degrees along the arc from its start) are continuous over the arc, their one discontinuity lies in
+ * the middle of the gap between the arc ends. On a full circle the ends meet, max sits a hair before the start so
+ * that its position still reads as max.
+ *
+ * Readings are spread over the arc by a SliderScale and snapped to multiples of the step size from min (1 by default,
+ * i.e. integer readings). The linear scale is computed exactly, any other scale is sampled into mScaleReadings
+ * whenever the range or the thumb distance changes and looked up by interpolation (angle -> reading) and binary
+ * search (reading -> angle).
+ */
+final class SliderGeometry {
+    //the tear drop shaped thumb is a circle with a 90 degree gap, the cone closes the gap towards the dial center.
+    static final float TEAR_DROP_OPENING_ANGLE = 60.0f;
+    static final float TEAR_DROP_ARC_SWEEP_ANGLE = 270.0f;
+    //scale table resolution, one segment per pixel of the thumb's path within these bounds.
+    private static final int MIN_SCALE_SEGMENTS = 64;
+    private static final int MAX_SCALE_SEGMENTS = 4096;
+    //step sizes are shown with at most this many decimals.
+    private static final int MAX_STEP_DECIMALS = 6;
+
+    //how far before the start max sits on a full circle, in degrees.
+    private static final double FULL_CIRCLE_SEAM = 1e-6;
+
+    private float mArcStartAngle;
+    private float mArcSweepAngle;
+
+    private float mCenterX;
+    private float mCenterY;
+    private int mMin;
+    private int mMax;
+    //how far the thumb center sits from the dial center.
+    private int mThumbDistance;
+    private SliderScale mScale = SliderScale.LINEAR;
+    private double mStepSize = 1;
+    private int mStepDecimals;
+
+    //derived from the arc, see setArc().
+    private boolean mIsFullCircle;
+    private boolean mIsArcAcrossPi;
+    private double mArcLimit1;//thumb angles of the arc start and end, in radians
+    private double mArcLimit2;
+    private double mThumbAngleLimit1;//the same in degrees
+    private double mThumbAngleLimit2;
+    //paint sweep angles are put in [mSweepAngleFloor, mSweepAngleFloor + 360).
+    private double mSweepAngleFloor;
+    //the largest sweep offset a thumb angle is placed at, a hair short of the sweep on a full circle.
+    private double mMaxSweepOffset;
+
+    //derived from the arc and the range, see updateDerivedValues().
+    private double mStepSizePerDegree;
+    private double mDegreesPerStep;
+    //the scale sampled at equal pieces of the arc, from min at the arc start to max at its end. null when linear.
+    private double[] mScaleReadings;
+    //the table compileScale() fills next, only swapped in once it holds a valid scale.
+    private double[] mSpareScaleReadings;
+
+    SliderGeometry(float arcStartAngle, float arcSweepAngle) {
+        setArc(arcStartAngle, arcSweepAngle);
+    }
+
+    /*
+     * The arc in the paint sweep mode: starts at startAngle degrees (0 at 3 o'clock, clockwise) and sweeps
+     * sweepAngle degrees clockwise, more than 0 and at most 360.
+     */
+    void setArc(float startAngle, float sweepAngle) {
+        if (!(sweepAngle > 0 && sweepAngle <= 360)) {
+            throw new IllegalArgumentException("The arc has to sweep more than 0 and at most 360 degrees: " + sweepAngle);
+        }
+        if (Float.isNaN(startAngle) || Float.isInfinite(startAngle)) {
+            throw new IllegalArgumentException("Invalid arc start angle: " + startAngle);
+        }
+        startAngle %= 360;
+        if (startAngle < 0) {
+            startAngle += 360;
+        }
+        mArcStartAngle = startAngle;
+        mArcSweepAngle = sweepAngle;
+        mIsFullCircle = sweepAngle == 360;
+        mMaxSweepOffset = mIsFullCircle ? sweepAngle - FULL_CIRCLE_SEAM : sweepAngle;
+
+        mThumbAngleLimit1 = toThumbAngleInDegrees(0);
+        mThumbAngleLimit2 = toThumbAngleInDegrees(mMaxSweepOffset);
+        mArcLimit1 = Math.toRadians(mThumbAngleLimit1);
+        mArcLimit2 = Math.toRadians(mThumbAngleLimit2);
+        //going clockwise from the start the thumb angle decreases, the arc passes PI if it has to wrap to get to the end.
+        mIsArcAcrossPi = mArcLimit2 > mArcLimit1;
+        mSweepAngleFloor = startAngle - (360 - sweepAngle) / 2;
+
+        updateDerivedValues();
+        compileScale();
+    }
+
+    boolean isFullCircle() {
+        return mIsFullCircle;
+    }
+
+    void setCenter(float centerX, float centerY) {
+        mCenterX = centerX;
+        mCenterY = centerY;
+    }
+
+    void setRange(int min, int max) {
+        int oldMin = mMin;
+        int oldMax = mMax;
+        mMin = min;
+        mMax = max;
+        try {
+            //a custom scale may not increase over the new range.
+            compileScale();
+        } catch (IllegalArgumentException e) {
+            mMin = oldMin;
+            mMax = oldMax;
+            throw e;
+        }
+        updateDerivedValues();
+    }
+
+    void setThumbDistance(int thumbDistance) {
+        if (mThumbDistance != thumbDistance) {
+            mThumbDistance = thumbDistance;
+            //the table resolution follows the length of the thumb's path.
+            compileScale();
+        }
+    }
+
+    //null sets the linear scale.
+    void setScale(SliderScale scale) {
+        SliderScale newScale = scale != null ? scale : SliderScale.LINEAR;
+        //throws before changing anything for a scale that doesn't increase.
+        compileScale(newScale);
+        mScale = newScale;
+    }
+
+    SliderScale getScale() {
+        return mScale;
+    }
+
+    void setStepSize(double stepSize) {
+        if (!(stepSize > 0) || Double.isInfinite(stepSize)) {
+            throw new IllegalArgumentException("The step size has to be positive: " + stepSize);
+        }
+        mStepSize = stepSize;
+        mStepDecimals = MAX_STEP_DECIMALS;
+        for (int decimals = 0; decimals < MAX_STEP_DECIMALS; decimals++) {
+            double scaled = stepSize * Math.pow(10, decimals);
+            if (Math.abs(scaled - Math.rint(scaled)) < 1e-6 * scaled) {
+                mStepDecimals = decimals;
+                break;
+            }
+        }
+    }
+
+    double getStepSize() {
+        return mStepSize;
+    }
+
+    //how many decimals readings are shown with.
+    int getStepDecimals() {
+        return mStepDecimals;
+    }
+
+    int getMin() {
+        return mMin;
+    }
+
+    int getMax() {
+        return mMax;
+    }
+
+    float getArcStartAngle() {
+        return mArcStartAngle;
+    }
+
+    float getArcSweepAngle() {
+        return mArcSweepAngle;
+    }
+
+    //how many degrees along the arc one reading takes, on average for non-linear scales.
+    double getDegreesPerStep() {
+        return mDegreesPerStep;
+    }
+
+    private void updateDerivedValues() {
+        mStepSizePerDegree = (mMax - mMin) / mArcSweepAngle;
+        mDegreesPerStep = 1 / mStepSizePerDegree;
+    }
+
+    private void compileScale() {
+        compileScale(mScale);
+    }
+
+    private void compileScale(SliderScale scale) {
+        if (scale == SliderScale.LINEAR) {
+            mScaleReadings = null;
+            return;
+        }
+        int segments = (int) Math.ceil(mThumbDistance * Math.toRadians(mArcSweepAngle));
+        segments = Math.max(MIN_SCALE_SEGMENTS, Math.min(MAX_SCALE_SEGMENTS, segments));
+        double[] readings = mSpareScaleReadings;
+        if (readings == null || readings.length != segments + 1) {
+            readings = new double[segments + 1];
+        }
+        readings[0] = mMin;
+        for (int i = 1; i < segments; i++) {
+            readings[i] = scale.readingAt((double) i / segments, mMin, mMax);
+        }
+        readings[segments] = mMax;
+        for (int i = 1; i <= segments; i++) {
+            if (!(readings[i] >= readings[i - 1])) {
+                mSpareScaleReadings = readings;
+                throw new IllegalArgumentException("The scale has to increase from " + mMin + " to " + mMax
+                        + ", it gives " + readings[i] + " after " + readings[i - 1]);
+            }
+        }
+        //the table replaced is filled by the next compile, relayouts don't allocate.
+        mSpareScaleReadings = mScaleReadings;
+        mScaleReadings = readings;
+    }
+
+    //the reading, not snapped, sweepOffset degrees along the arc.
+    private double readingAtSweepOffset(double sweepOffset) {
+        double[] readings = mScaleReadings;
+        if (readings == null) {
+            return mMin + sweepOffset * mStepSizePerDegree;
+        }
+        int segments = readings.length - 1;
+        double position = sweepOffset / mArcSweepAngle * segments;
+        if (position <= 0) {
+            return readings[0];
+        } else if (position >= segments) {
+            return readings[segments];
+        }
+        int segment = (int) position;
+        return readings[segment] + (readings[segment + 1] - readings[segment]) * (position - segment);
+    }
+
+    //how far along the arc, in degrees, the reading lies on a non-linear scale. Clamped to the arc.
+    private double sweepOffsetForScaleReading(double reading) {
+        double[] readings = mScaleReadings;
+        int segments = readings.length - 1;
+        if (reading <= readings[0]) {
+            return 0;
+        } else if (reading >= readings[segments]) {
+            return mArcSweepAngle;
+        }
+        //first sample at or past the reading.
+        int low = 1;
+        int high = segments;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (readings[middle] < reading) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        double width = readings[low] - readings[low - 1];
+        double t = width > 0 ? (reading - readings[low - 1]) / width : 0;
+        return (low - 1 + t) / segments * mArcSweepAngle;
+    }
+
+    //the reading of the step, steps counted from min. The last step is cut short at max.
+    float readingOfStep(long step) {
+        return (float) Math.min(mMax, mMin + step * mStepSize);
+    }
+
+    //the number of steps from min to max, max being the last one even if the step size does not divide the range.
+    long getStepCount() {
+        return Math.max(0, (long) Math.ceil((mMax - mMin) / mStepSize - 1e-9));
+    }
+
+    //the step the reading rounds to, steps counted from min. A reading closer to max than to the last full step is max.
+    long stepOf(double reading) {
+        long step = Math.round((reading - mMin) / mStepSize);
+        long stepCount = getStepCount();
+        if (step >= stepCount - 1 && stepCount > 0) {
+            double lastFullStep = mMin + (stepCount - 1) * mStepSize;
+            step = mMax - reading < reading - lastFullStep ? stepCount : stepCount - 1;
+        }
+        return Math.max(0, step);
+    }
+
+    //the reading rounded to a step, what is shown for it.
+    float snapToStep(double reading) {
+        return readingOfStep(stepOf(reading));
+    }
+
+    /*
+     * Thumb angle of the touch point, in the range of -PI to PI.
+     * Returns NaN for a touch right on the center since it has no direction.
+     */
+    double angleAt(float touchX, float touchY) {
+        float distanceX = touchX - mCenterX;
+        float distanceY = mCenterY - touchY; //as you go down the screen the Y coordinate increases.
+        if (distanceX == 0 && distanceY == 0) {
+            return Double.NaN;
+        }
+        return Math.atan2(distanceY, distanceX);
+    }
+
+    /*
+     * Whether the thumb angle lies on the arc, which goes clockwise from limit1 down to limit2. An arc that passes PI
+     * covers -PI to limit1 and limit2 to PI instead.
+     */
+    boolean isValidAngle(double angle) {
+        if (!(angle >= -Math.PI && angle <= Math.PI)) {
+            return false;
+        } else if (mIsFullCircle) {
+            return true;
+        } else if (mIsArcAcrossPi) {
+            return angle <= mArcLimit1 || angle >= mArcLimit2;
+        } else {
+            return angle <= mArcLimit1 && angle >= mArcLimit2;
+        }
+    }
+
+    /*
+     * Puts the thumb angle (radians) in the paint sweep mode (degrees) where the arc starts at mArcStartAngle and
+     * goes clockwise. Flipping the sign gives the clockwise angle, it is then moved by full turns next to the arc.
+     */
+    double toSweepAngle(double angle) {
+        double sweepAngle = -Math.toDegrees(angle);
+        if (sweepAngle < mSweepAngleFloor) {
+            sweepAngle = 360 + sweepAngle;
+            if (sweepAngle < mSweepAngleFloor) {
+                sweepAngle = 360 + sweepAngle;
+            }
+        }
+        return sweepAngle;
+    }
+
+    //gets the value of the slider from the thumb angle, snapped to a step.
+    float readingAt(double thumbAngle) {
+        double sweepOffset = toSweepAngle(thumbAngle) - mArcStartAngle;
+        if (mScaleReadings == null && mStepSize == 1) {
+            int offsetFromStart = (int) Math.round(sweepOffset * mStepSizePerDegree);
+            return mMin + offsetFromStart;
+        }
+        return readingOfStep(stepOf(readingAtSweepOffset(sweepOffset)));
+    }
+
+    //gets the thumb angle, in degrees in the -180 to 180 range, from the reading.
+    double angleForReading(double reading) {
+        if (reading == mMin) {
+            return mThumbAngleLimit1;
+        } else if (reading == mMax) {
+            return mThumbAngleLimit2;
+        } else if (mScaleReadings != null) {
+            return toThumbAngleInDegrees(sweepOffsetForScaleReading(reading));
+        } else {
+            float stepsFromMinReading = (float) (reading - mMin);
+            return toThumbAngleInDegrees(mDegreesPerStep * stepsFromMinReading);
+        }
+    }
+
+    //the thumb angle, in radians, of the reading.
+    double thumbAngleForReading(double reading) {
+        return Math.toRadians(angleForReading(reading));
+    }
+
+    //how far along the arc, in degrees from the arc start, the thumb angle lies.
+    double sweepOffset(double thumbAngle) {
+        return toSweepAngle(thumbAngle) - mArcStartAngle;
+    }
+
+    /*
+     * The thumb angle, in radians in the -PI to PI range, of the point sweepOffset degrees along the arc. The end of a
+     * full circle stays at max rather than coming back around to min.
+     */
+    double thumbAngleForSweepOffset(double sweepOffset) {
+        return Math.toRadians(toThumbAngleInDegrees(Math.min(sweepOffset, mMaxSweepOffset)));
+    }
+
+    //converts the offset on the arc, which is in the paint sweep mode, into the normal quadrant mode angle in degrees.
+    private double toThumbAngleInDegrees(double sweepOffset) {
+        double angleInDegrees = 360 - (mArcStartAngle + sweepOffset);
+        while (angleInDegrees > 180) {
+            angleInDegrees -= 360;
+        }
+        while (angleInDegrees <= -180) {
+            angleInDegrees += 360;
+        }
+        return angleInDegrees;
+    }
+
+    int thumbX(double thumbAngle) {
+        return (int) (mCenterX + mThumbDistance * Math.cos(thumbAngle));
+    }
+
+    int thumbY(double thumbAngle) {
+        //since Sine is +1 near the android's coordinate system we are reversing it.
+        //Sine increases as you go up the screen however in android's screen coordinate system your y-coordinate decreases
+        return (int) (mCenterY - mThumbDistance * Math.sin(thumbAngle));
+    }
+
+    /*
+     * Where the arc of the tear drop starts, in the paint sweep mode.
+     * You determine the tilt angle by reversing the thumb angle by 180 and then starting the arc by openingAngle / 2.
+     */
+    static double tearDropStartAngle(double thumbAngle) {
+        return (180 - Math.toDegrees(thumbAngle)) + TEAR_DROP_OPENING_ANGLE / 2;
+    }
+
+    /*
+     * The tip of the tear drop's cone, coneLength away from the thumb center on the line to the dial center.
+     * Written into out as x, y.
+     *
+     * y - y1 = m(x - x1); equation of a line.
+     * The below equation you get by taking the ratio of the distance and then substituting the above equation into
+     * that ratio equation and then getting one of the coordinates and then substituting that in the above coordinate
+     * to get the other point.
+     */
+    void tearDropTip(int thumbX, int thumbY, int coneLength, float[] out) {
+        float distanceX = mCenterX - thumbX;
+        float distanceY = mCenterY - thumbY;
+        float distanceBetweenPoints = (float) Math.sqrt((double) distanceX * distanceX + (double) distanceY * distanceY);
+        float t = coneLength / distanceBetweenPoints;
+        out[0] = (1 - t) * thumbX + t * mCenterX;
+        out[1] = (1 - t) * thumbY + t * mCenterY;
+    }
+}
@@ -0,0 +1,177 @@
+package san.radialslider;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Feeds live readings to many sliders at once, e.g. a dashboard of dials. Instead of every slider taking its own
+ * updates, the readings of the whole group are handed over as one array and applied together in a single pass on
+ * the next frame:
+ * <pre>
+ * SliderGroup group = new SliderGroup(speed, rpm, temperature);
+ * //from any thread, as often as data comes in
+ * group.postReadings(latestReadings);
+ * </pre>
+ * Only the latest readings posted before a frame are applied. A slider is only updated (and invalidated) when its
+ * reading rounded to a step, the one it shows, changes. Like {@link Slider#postThumbReading(float)} the readings go to each
+ * slider's first thumb, no listener callbacks are made and sliders the user is dragging are left alone.
+ * <p/>
+ * The group belongs to the looper thread it was created on, the one its sliders run on (usually the UI thread).
+ * {@link #getUpdateDuration()} tells how long applying the readings takes per frame.
+ */
+public final class SliderGroup {
+    private final Slider[] mSliders;
+    private final Looper mLooper;
+    private final Handler mHandler;
+
+    //written from any thread, guarded by mLock.
+    private final Object mLock = new Object();
+    private final float[] mPendingReadings;
+    private final boolean[] mIsPending;
+    private boolean mIsFrameRequested;
+
+    //the group's thread only, what the current frame applies.
+    private final float[] mFrameReadings;
+    private final boolean[] mIsFrameReading;
+    private final LatencyHistogram mUpdateDuration = new LatencyHistogram();
+    private int mLastChangedCount;
+
+    private final FrameTicker.Callback mFrameCallback = new FrameTicker.Callback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            applyReadings();
+        }
+    };
+    private final Runnable mRequestFrameTask = new Runnable() {
+        @Override
+        public void run() {
+            FrameTicker.getInstance().postFrameCallback(mFrameCallback);
+        }
+    };
+
+    /**
+     * A group of the given sliders, reading i goes to slider i. Must be created on the sliders' thread.
+     */
+    public SliderGroup(Slider... sliders) {
+        mLooper = Looper.myLooper();
+        if (mLooper == null) {
+            throw new IllegalStateException("SliderGroup must be created on a looper thread");
+        }
+        mHandler = new Handler(mLooper);
+        mSliders = sliders.clone();
+        int count = mSliders.length;
+        mPendingReadings = new float[count];
+        mIsPending = new boolean[count];
+        mFrameReadings = new float[count];
+        mIsFrameReading = new boolean[count];
+    }
+
+    public int getSliderCount() {
+        return mSliders.length;
+    }
+
+    public Slider getSlider(int index) {
+        return mSliders[index];
+    }
+
+    /**
+     * Sets the readings of all sliders of the group on the next frame. The array is copied, it can be refilled right
+     * away. Thread safe.
+     */
+    public void postReadings(float[] readings) {
+        if (readings.length != mSliders.length) {
+            throw new IllegalArgumentException(readings.length + " readings for " + mSliders.length + " sliders");
+        }
+        boolean isFrameNeeded;
+        synchronized (mLock) {
+            System.arraycopy(readings, 0, mPendingReadings, 0, readings.length);
+            for (int i = 0; i < mIsPending.length; i++) {
+                mIsPending[i] = true;
+            }
+            isFrameNeeded = markFrameRequested();
+        }
+        if (isFrameNeeded) {
+            requestFrame();
+        }
+    }
+
+    /**
+     * Sets the reading of one slider of the group on the next frame. Thread safe.
+     */
+    public void postReading(int index, float reading) {
+        if (index < 0 || index >= mSliders.length) {
+            throw new IndexOutOfBoundsException("No slider " + index + " in a group of " + mSliders.length);
+        }
+        boolean isFrameNeeded;
+        synchronized (mLock) {
+            mPendingReadings[index] = reading;
+            mIsPending[index] = true;
+            isFrameNeeded = markFrameRequested();
+        }
+        if (isFrameNeeded) {
+            requestFrame();
+        }
+    }
+
+    /**
+     * Installs the metrics on every slider of the group, so that they add up the whole group's draw cost.
+     * See {@link Slider#setMetrics(SliderMetrics)}. Call on the group's thread.
+     */
+    public void setMetrics(SliderMetrics metrics) {
+        for (Slider slider : mSliders) {
+            slider.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * How long applying the posted readings to the sliders took, once per frame that had readings, in nanoseconds.
+     */
+    public LatencyHistogram getUpdateDuration() {
+        return mUpdateDuration;
+    }
+
+    /**
+     * How many sliders changed in the last frame that applied readings. Call on the group's thread.
+     */
+    public int getLastChangedCount() {
+        return mLastChangedCount;
+    }
+
+    //under mLock, true if the caller has to request the frame.
+    private boolean markFrameRequested() {
+        if (mIsFrameRequested) {
+            return false;
+        }
+        mIsFrameRequested = true;
+        return true;
+    }
+
+    private void requestFrame() {
+        if (Looper.myLooper() == mLooper) {
+            mRequestFrameTask.run();
+        } else {
+            mHandler.post(mRequestFrameTask);
+        }
+    }
+
+    private void applyReadings() {
+        synchronized (mLock) {
+            mIsFrameRequested = false;
+            System.arraycopy(mPendingReadings, 0, mFrameReadings, 0, mPendingReadings.length);
+            for (int i = 0; i < mIsPending.length; i++) {
+                mIsFrameReading[i] = mIsPending[i];
+                mIsPending[i] = false;
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        int changedCount = 0;
+        for (int i = 0; i < mSliders.length; i++) {
+            if (mIsFrameReading[i] && mSliders[i].applyGroupReading(mFrameReadings[i])) {
+                changedCount++;
+            }
+        }
+        mUpdateDuration.record(System.nanoTime() - startNanos);
+        mLastChangedCount = changedCount;
+    }
+}
@@ -0,0 +1,24 @@
+package san.radialslider;
+
+/**
+ * Hooks the {@link Slider} calls around its hot paths. Nothing is installed by default and the slider only checks
+ * for a null instrumentation before each section, so an uninstrumented slider neither builds strings nor makes calls.
+ * <p/>
+ * Sections are identified by the SECTION_* ids so that implementations can keep their names and timings in arrays.
+ * Sections nest (listener dispatch happens inside touch handling) and are always ended on the UI thread they were
+ * started on.
+ */
+public interface SliderInstrumentation {
+    //Slider.onDraw
+    int SECTION_DRAW = 0;
+    //Slider.onTouchEvent
+    int SECTION_TOUCH = 1;
+    //calls into Slider.IListenForSliderState
+    int SECTION_LISTENER_DISPATCH = 2;
+
+    int SECTION_COUNT = 3;
+
+    void beginSection(int section);
+
+    void endSection(int section);
+}
@@ -0,0 +1,46 @@
+package san.radialslider;
+
+/**
+ * Frame metrics of a {@link Slider}, installed with {@link Slider#setMetrics(SliderMetrics)}. Nothing is measured
+ * unless metrics are installed. Each metric is a {@link LatencyHistogram} in nanoseconds:
+ * <ul>
+ * <li>{@link #getDrawDuration()}: how long each onDraw took.</li>
+ * <li>{@link #getTouchToFrameLatency()}: from a move event that moved a thumb (its event time, so the time it waited
+ * in the input queue is included) to the end of the next onDraw. Further moves before that frame are part of it and
+ * not counted again.</li>
+ * <li>{@link #getListenerDispatchDuration()}: how long the slider's listener callbacks blocked the thread the slider
+ * runs on. Callbacks delivered on a dispatch executor don't block it and are not counted.</li>
+ * </ul>
+ * Recording doesn't allocate. Snapshots can be taken from any thread, e.g. periodically to export them:
+ * <pre>
+ * LatencyHistogram.Snapshot draw = metrics.getDrawDuration().snapshot();
+ * report("slider_draw_p99_ns", draw.getPercentile(99));
+ * </pre>
+ * One instance may be shared by several sliders running on the same thread to aggregate them.
+ */
+public final class SliderMetrics {
+    private final LatencyHistogram mDrawDuration = new LatencyHistogram();
+    private final LatencyHistogram mTouchToFrameLatency = new LatencyHistogram();
+    private final LatencyHistogram mListenerDispatchDuration = new LatencyHistogram();
+
+    public LatencyHistogram getDrawDuration() {
+        return mDrawDuration;
+    }
+
+    public LatencyHistogram getTouchToFrameLatency() {
+        return mTouchToFrameLatency;
+    }
+
+    public LatencyHistogram getListenerDispatchDuration() {
+        return mListenerDispatchDuration;
+    }
+
+    /**
+     * Resets all histograms, e.g. after exporting them.
+     */
+    public void reset() {
+        mDrawDuration.reset();
+        mTouchToFrameLatency.reset();
+        mListenerDispatchDuration.reset();
+    }
+}
@@ -0,0 +1,94 @@
+package san.radialslider;
+
+/**
+ * How readings are spread over the arc, set with {@link Slider#setScale(SliderScale)}. A scale maps a position on the
+ * arc, 0 at the start and 1 at the end, to a reading between min and max and must be increasing.
+ * <p/>
+ * Scales are only evaluated when the slider's range or size changes: the slider samples them into a lookup table
+ * dense enough for every pixel along the arc and resolves touches and readings by interpolating in that table, so a
+ * logarithmic scale doesn't cost a Math.log / Math.pow per move event. {@link #LINEAR} is computed exactly instead.
+ */
+public abstract class SliderScale {
+    /**
+     * The default, equal steps all along the arc.
+     */
+    public static final SliderScale LINEAR = new SliderScale() {
+        @Override
+        public double readingAt(double position, double min, double max) {
+            return min + (max - min) * position;
+        }
+    };
+
+    /**
+     * The reading at the position, between 0 and 1, on the arc. Has to return min for 0, max for 1 and increase in
+     * between.
+     */
+    public abstract double readingAt(double position, double min, double max);
+
+    /**
+     * Each equal piece of arc multiplies the reading by the same factor, e.g. for frequencies. With a range starting at
+     * 0 or below the factor applies to the distance from min - 1, which keeps the shape.
+     */
+    public static SliderScale logarithmic() {
+        return new SliderScale() {
+            @Override
+            public double readingAt(double position, double min, double max) {
+                if (min > 0) {
+                    return min * Math.pow(max / min, position);
+                }
+                return min - 1 + Math.pow(max - min + 1, position);
+            }
+        };
+    }
+
+    /**
+     * Fine at the start of the arc and coarse towards the end for a positive curvature, the other way around for a
+     * negative one, e.g. 4 for a gain control. A curvature of 0 is linear.
+     */
+    public static SliderScale exponential(final double curvature) {
+        if (curvature == 0) {
+            return LINEAR;
+        }
+        final double scale = Math.expm1(curvature);
+        return new SliderScale() {
+            @Override
+            public double readingAt(double position, double min, double max) {
+                return min + (max - min) * Math.expm1(curvature * position) / scale;
+            }
+        };
+    }
+
+    /**
+     * Linear between the given points. positions are points on the arc from 0 to 1, rangeFractions the share of the
+     * range, from 0 to 1, reached at each of them. E.g. positions {0, 0.5, 1} and rangeFractions {0, 0.1, 1} give the
+     * first half of the arc to the first tenth of the range. Both have to start at 0, end at 1 and increase.
+     */
+    public static SliderScale piecewise(float[] positions, float[] rangeFractions) {
+        if (positions.length != rangeFractions.length || positions.length < 2) {
+            throw new IllegalArgumentException("Piecewise scales need at least 2 points with a fraction each");
+        }
+        int last = positions.length - 1;
+        if (positions[0] != 0 || positions[last] != 1 || rangeFractions[0] != 0 || rangeFractions[last] != 1) {
+            throw new IllegalArgumentException("Piecewise scales have to go from 0, 0 to 1, 1");
+        }
+        for (int i = 1; i <= last; i++) {
+            if (positions[i] <= positions[i - 1] || rangeFractions[i] <= rangeFractions[i - 1]) {
+                throw new IllegalArgumentException("Piecewise scale points have to increase");
+            }
+        }
+        final float[] points = positions.clone();
+        final float[] fractions = rangeFractions.clone();
+        return new SliderScale() {
+            @Override
+            public double readingAt(double position, double min, double max) {
+                int segment = 1;
+                while (segment < points.length - 1 && points[segment] < position) {
+                    segment++;
+                }
+                double t = (position - points[segment - 1]) / (points[segment] - points[segment - 1]);
+                double fraction = fractions[segment - 1] + (fractions[segment] - fractions[segment - 1]) * t;
+                return min + (max - min) * fraction;
+            }
+        };
+    }
+}
@@ -0,0 +1,310 @@
+package san.radialslider;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.text.TextPaint;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/*
+ * Everything about a slider's looks that does not depend on its state: the slider_attributes values in pixels, the
+ * paints configured from them, the thumb shadow, the measured reading texts and the rasterized dial arcs.
+ *
+ * Styles are immutable and interned, sliders inflated with the same attributes share one instance (and with it the
+ * bitmaps and caches) instead of each building their own. Changing a style value on a slider swaps in another
+ * interned style, see withArcColor(). A style stays interned for as long as a slider uses it.
+ *
+ * The paints are preconfigured and must not be modified by the draw code. The lazily filled caches are not
+ * synchronized, so an interned style is only drawn with on the UI thread. A slider drawing on another thread (hosted
+ * by a SliderTextureView) uses a private style instead, see asPrivate(), which is never shared and whose derived
+ * styles are private too. obtain() may be called from any thread (e.g. by an async layout inflater).
+ */
+final class SliderStyle {
+    private static final int ALPHA_FOR_THUMB = 255;
+    private static final int THUMB_SHADOW_COLOR = 0x80454545;
+    //sliders of one style usually come in one or two sizes.
+    private static final int DIAL_LAYER_CACHE_SIZE = 4;
+
+    //keyed by the attribute values alone, a lookup doesn't build the paints. The style holds on to its key, the entry
+    //goes away with the last slider using the style.
+    private static final WeakHashMap<Key, WeakReference<SliderStyle>> sStyles = new WeakHashMap<>();
+
+    private final Key mKey;
+
+    //derived from the key.
+    private final int mThumbShadowPadding;
+    private final Paint mDialArcPaint;
+    private final Paint mDialLayerMaskPaint;
+    private final Paint mDialLayerPaint;
+    private final Paint mThumbPaint;
+    private final Paint mShadowedThumbPaint;
+    private final Paint mShadowPaint;
+    private final Paint mThumbArcPaint;
+    private final TextPaint mTextPaint;
+    private final ThumbShadow mThumbShadow = new ThumbShadow();
+
+    //lazily filled caches.
+    private ReadingTextCache mReadingTexts;
+    private final Bitmap[] mDialLayers = new Bitmap[DIAL_LAYER_CACHE_SIZE];
+    private final float[][] mDialLayerKeys = new float[DIAL_LAYER_CACHE_SIZE][];
+    private int mNextDialLayerSlot;
+
+    //not interned, owned by a single slider.
+    private final boolean mIsPrivate;
+
+    private SliderStyle(Key key, boolean isPrivate) {
+        mKey = key;
+        mIsPrivate = isPrivate;
+        int strokeWidth = key.mStrokeWidth;
+        int arcColor = key.mArcColor;
+        int thumbRadius = key.mThumbRadius;
+        int thumbTextColor = key.mThumbTextColor;
+
+        mThumbShadowPadding = ThumbShadow.getPadding(thumbRadius);
+
+        mDialArcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mDialArcPaint.setStrokeWidth(strokeWidth);
+        mDialArcPaint.setStyle(Paint.Style.STROKE);
+        mDialArcPaint.setStrokeCap(Paint.Cap.SQUARE);
+        mDialArcPaint.setColor(arcColor);
+
+        //only the coverage is recorded into the dial layer, the color comes from mDialLayerPaint.
+        mDialLayerMaskPaint = new Paint(mDialArcPaint);
+        mDialLayerMaskPaint.setColor(Color.BLACK);
+        mDialLayerPaint = new Paint();
+        mDialLayerPaint.setColor(arcColor);
+
+        mThumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mThumbPaint.setColor(key.mThumbColor);
+        mThumbPaint.setStyle(Paint.Style.FILL);
+        mThumbPaint.setAlpha(ALPHA_FOR_THUMB);
+        //only honored on a software layer.
+        mShadowedThumbPaint = new Paint(mThumbPaint);
+        mShadowedThumbPaint.setShadowLayer(thumbRadius / 4, 0.0f, 0.0f, THUMB_SHADOW_COLOR);
+        mShadowPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        mThumbArcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mThumbArcPaint.setColor(thumbTextColor);
+        mThumbArcPaint.setStyle(Paint.Style.STROKE);
+        mThumbArcPaint.setStrokeCap(Paint.Cap.SQUARE);
+        mThumbArcPaint.setStrokeWidth(key.mThumbArcStrokeWidth);
+
+        mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mTextPaint.setColor(thumbTextColor);
+        mTextPaint.setTextSize(key.mThumbReadingTextSize);
+    }
+
+    /*
+     * The shared style for the given values, created if no slider uses it yet.
+     */
+    static SliderStyle obtain(int strokeWidth, int backgroundPadding, int thumbColor, int arcColor, int thumbTextColor,
+                              int thumbRadius, int thumbReadingTextSize, int thumbArcStrokeWidth) {
+        return obtain(new Key(strokeWidth, backgroundPadding, thumbColor, arcColor, thumbTextColor, thumbRadius,
+                thumbReadingTextSize, thumbArcStrokeWidth));
+    }
+
+    private static SliderStyle obtain(Key key) {
+        synchronized (sStyles) {
+            WeakReference<SliderStyle> reference = sStyles.get(key);
+            SliderStyle interned = reference != null ? reference.get() : null;
+            if (interned != null) {
+                return interned;
+            }
+            SliderStyle style = new SliderStyle(key, false);
+            sStyles.put(key, new WeakReference<>(style));
+            return style;
+        }
+    }
+
+    /*
+     * A style with the same values that no other slider shares, for a slider drawing off the UI thread. Builds its
+     * own paints and caches.
+     */
+    SliderStyle asPrivate() {
+        if (mIsPrivate) {
+            return this;
+        }
+        return new SliderStyle(mKey, true);
+    }
+
+    boolean isPrivate() {
+        return mIsPrivate;
+    }
+
+    SliderStyle withArcColor(int arcColor) {
+        if (arcColor == mKey.mArcColor) {
+            return this;
+        }
+        Key key = new Key(mKey.mStrokeWidth, mKey.mBackgroundPadding, mKey.mThumbColor, arcColor, mKey.mThumbTextColor,
+                mKey.mThumbRadius, mKey.mThumbReadingTextSize, mKey.mThumbArcStrokeWidth);
+        return mIsPrivate ? new SliderStyle(key, true) : obtain(key);
+    }
+
+    int getStrokeWidth() {
+        return mKey.mStrokeWidth;
+    }
+
+    int getBackgroundPadding() {
+        return mKey.mBackgroundPadding;
+    }
+
+    int getThumbColor() {
+        return mKey.mThumbColor;
+    }
+
+    int getArcColor() {
+        return mKey.mArcColor;
+    }
+
+    int getThumbRadius() {
+        return mKey.mThumbRadius;
+    }
+
+    int getThumbReadingTextSize() {
+        return mKey.mThumbReadingTextSize;
+    }
+
+    int getThumbArcStrokeWidth() {
+        return mKey.mThumbArcStrokeWidth;
+    }
+
+    //how far the thumb shadow reaches past the thumb shape.
+    int getThumbShadowPadding() {
+        return mThumbShadowPadding;
+    }
+
+    Paint getDialArcPaint() {
+        return mDialArcPaint;
+    }
+
+    Paint getDialLayerPaint() {
+        return mDialLayerPaint;
+    }
+
+    //the shadowed paint is for software layers, on the hardware pipeline the shadow comes from getThumbShadow().
+    Paint getThumbPaint(boolean shadowed) {
+        return shadowed ? mShadowedThumbPaint : mThumbPaint;
+    }
+
+    Paint getShadowPaint() {
+        return mShadowPaint;
+    }
+
+    Paint getThumbArcPaint() {
+        return mThumbArcPaint;
+    }
+
+    TextPaint getTextPaint() {
+        return mTextPaint;
+    }
+
+    ThumbShadow getThumbShadow() {
+        mThumbShadow.prepare(mKey.mThumbRadius, THUMB_SHADOW_COLOR);
+        return mThumbShadow;
+    }
+
+    //readings are drawn on every frame, their text and measurements are kept instead of being made again.
+    ReadingTextCache getReadingTexts() {
+        if (mReadingTexts == null) {
+            mReadingTexts = new ReadingTextCache(mTextPaint);
+        }
+        return mReadingTexts;
+    }
+
+    /*
+     * The dial arc rasterized into an alpha mask of width x height, drawn with getDialLayerPaint(). Sliders of this
+     * style with the same size and arc share the bitmap. A bitmap handed out is never drawn into again since other
+     * sliders may still show it, evicted ones are left to the garbage collector.
+     */
+    Bitmap getDialLayer(int width, int height, RectF arcRect, float arcStartAngle, float arcSweepAngle) {
+        for (int i = 0; i < DIAL_LAYER_CACHE_SIZE; i++) {
+            float[] key = mDialLayerKeys[i];
+            if (key != null && key[0] == width && key[1] == height && key[2] == arcRect.left && key[3] == arcRect.top
+                    && key[4] == arcRect.right && key[5] == arcRect.bottom && key[6] == arcStartAngle
+                    && key[7] == arcSweepAngle) {
+                return mDialLayers[i];
+            }
+        }
+
+        Bitmap dialLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+        new Canvas(dialLayer).drawArc(arcRect, arcStartAngle, arcSweepAngle, false, mDialLayerMaskPaint);
+
+        int slot = mNextDialLayerSlot;
+        mNextDialLayerSlot = (slot + 1) % DIAL_LAYER_CACHE_SIZE;
+        mDialLayers[slot] = dialLayer;
+        mDialLayerKeys[slot] = new float[]{width, height, arcRect.left, arcRect.top, arcRect.right, arcRect.bottom,
+                arcStartAngle, arcSweepAngle};
+        return dialLayer;
+    }
+
+    //styles made from the same values are equal, whether they are interned or private.
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof SliderStyle && mKey.equals(((SliderStyle) o).mKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return mKey.hashCode();
+    }
+
+    //the attribute values a style is made from, sizes in pixels.
+    private static final class Key {
+        final int mStrokeWidth;
+        final int mBackgroundPadding;
+        final int mThumbColor;
+        final int mArcColor;
+        final int mThumbTextColor;
+        final int mThumbRadius;
+        final int mThumbReadingTextSize;
+        final int mThumbArcStrokeWidth;
+
+        Key(int strokeWidth, int backgroundPadding, int thumbColor, int arcColor, int thumbTextColor, int thumbRadius,
+            int thumbReadingTextSize, int thumbArcStrokeWidth) {
+            mStrokeWidth = strokeWidth;
+            mBackgroundPadding = backgroundPadding;
+            mThumbColor = thumbColor;
+            mArcColor = arcColor;
+            mThumbTextColor = thumbTextColor;
+            mThumbRadius = thumbRadius;
+            mThumbReadingTextSize = thumbReadingTextSize;
+            mThumbArcStrokeWidth = thumbArcStrokeWidth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return mStrokeWidth == key.mStrokeWidth
+                    && mBackgroundPadding == key.mBackgroundPadding
+                    && mThumbColor == key.mThumbColor
+                    && mArcColor == key.mArcColor
+                    && mThumbTextColor == key.mThumbTextColor
+                    && mThumbRadius == key.mThumbRadius
+                    && mThumbReadingTextSize == key.mThumbReadingTextSize
+                    && mThumbArcStrokeWidth == key.mThumbArcStrokeWidth;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mStrokeWidth;
+            result = 31 * result + mBackgroundPadding;
+            result = 31 * result + mThumbColor;
+            result = 31 * result + mArcColor;
+            result = 31 * result + mThumbTextColor;
+            result = 31 * result + mThumbRadius;
+            result = 31 * result + mThumbReadingTextSize;
+            result = 31 * result + mThumbArcStrokeWidth;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package san.radialslider;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.TextureView;
+import android.view.View;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Slider} that draws on its own render thread instead of the UI thread, so dragging, flinging and animating
+ * the thumb stay smooth while the UI thread is busy with layout and binding work. Takes the same slider_attributes.
+ * <p/>
+ * The slider lives on the render thread: touch events are handed over to it through a lock-free queue and it is drawn
+ * into the texture with lockCanvas / unlockCanvasAndPost, repainting only what it invalidated. The drawing code is
+ * the slider's own. Listener callbacks are delivered on the UI thread.
+ * <p/>
+ * Other than {@link Slider#postThumbReading(float)}, which is thread safe, the slider returned by {@link #getSlider()}
+ * must only be used from tasks passed to {@link #queueEvent(Runnable)} or before this view is attached.
+ */
+public class SliderTextureView extends TextureView {
+    private static final String TAG = "SliderTextureView";
+
+    private static final Executor MAIN_THREAD_EXECUTOR = new Executor() {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            mHandler.post(command);
+        }
+    };
+
+    private final Slider mSlider;
+
+    //handed over to the render thread, drained once per pass.
+    private final ConcurrentLinkedQueue<Runnable> mEvents = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<MotionEvent> mTouchEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mIsDrainScheduled = new AtomicBoolean();
+    private final Runnable mDrainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    //null while there is no surface to render into.
+    private volatile Handler mRenderHandler;
+    private HandlerThread mRenderThread;
+
+    //render thread only.
+    private int mSurfaceWidth;
+    private int mSurfaceHeight;
+    private final Rect mDirtyRect = new Rect();
+    private boolean mIsDirty;
+    private boolean mIsRenderScheduled;
+    private final Runnable mRenderTask = new Runnable() {
+        @Override
+        public void run() {
+            render();
+        }
+    };
+
+    private final Slider.RenderHost mRenderHost = new Slider.RenderHost() {
+        @Override
+        public void onSliderInvalidated(Rect dirty) {
+            if (dirty == null) {
+                mDirtyRect.set(0, 0, mSurfaceWidth, mSurfaceHeight);
+            } else {
+                mDirtyRect.union(dirty);
+            }
+            mIsDirty = true;
+            Handler handler = mRenderHandler;
+            if (!mIsRenderScheduled && handler != null) {
+                //runs right after the current pass, several invalidations in one pass make one frame.
+                mIsRenderScheduled = true;
+                handler.post(mRenderTask);
+            }
+        }
+
+        @Override
+        public void post(Runnable task) {
+            queueEvent(task);
+        }
+    };
+
+    private final SurfaceTextureListener mSurfaceTextureListener = new SurfaceTextureListener() {
+        @Override
+        public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+            startRenderThread(width, height);
+        }
+
+        @Override
+        public void onSurfaceTextureSizeChanged(SurfaceTexture surface, final int width, final int height) {
+            queueEvent(new Runnable() {
+                @Override
+                public void run() {
+                    layoutSlider(width, height);
+                }
+            });
+        }
+
+        @Override
+        public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+            //returns once the render thread is done, the texture can go right away.
+            stopRenderThread();
+            return true;
+        }
+
+        @Override
+        public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+        }
+    };
+
+    public SliderTextureView(Context context) {
+        this(context, null);
+    }
+
+    public SliderTextureView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SliderTextureView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mSlider = new Slider(context, attrs, defStyleAttr);
+        //drawn on the render thread, it must not share caches with the UI thread's sliders.
+        mSlider.usePrivateStyle();
+        mSlider.setDispatchExecutor(MAIN_THREAD_EXECUTOR);
+        mSlider.setRenderHost(mRenderHost);
+        setOpaque(false);
+        setSurfaceTextureListener(mSurfaceTextureListener);
+    }
+
+    /**
+     * The hosted slider, see the class documentation for which thread may use it.
+     * Its listener callbacks go to the UI thread unless you set another dispatch executor.
+     */
+    public Slider getSlider() {
+        return mSlider;
+    }
+
+    /**
+     * Runs the task on the render thread, where it may use {@link #getSlider()}. Can be called from any thread, tasks
+     * queued while there is no surface run once there is one.
+     */
+    public void queueEvent(Runnable task) {
+        mEvents.offer(task);
+        scheduleDrain();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        //sized like the slider would be, without touching the slider which belongs to the render thread.
+        setMeasuredDimension(Slider.measureDimension(widthMeasureSpec, 100), Slider.measureDimension(heightMeasureSpec, 100));
+    }
+
+    @Override
+    @SuppressWarnings("NullableProblems")
+    public boolean onTouchEvent(MotionEvent event) {
+        if (mRenderHandler == null) {
+            //nothing on screen to touch.
+            return false;
+        }
+        //the copy is recycled on the render thread.
+        mTouchEvents.offer(MotionEvent.obtain(event));
+        scheduleDrain();
+        return true;
+    }
+
+    private void scheduleDrain() {
+        Handler handler = mRenderHandler;
+        if (handler != null && mIsDrainScheduled.compareAndSet(false, true)) {
+            handler.post(mDrainTask);
+        }
+    }
+
+    private void startRenderThread(final int width, final int height) {
+        mRenderThread = new HandlerThread(TAG, Process.THREAD_PRIORITY_DISPLAY);
+        mRenderThread.start();
+        Handler handler = new Handler(mRenderThread.getLooper());
+        mRenderHandler = handler;
+        //first pass: the size, then whatever got queued while there was no surface.
+        mIsDrainScheduled.set(true);
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                layoutSlider(width, height);
+                drain();
+            }
+        });
+    }
+
+    private void stopRenderThread() {
+        Handler handler = mRenderHandler;
+        mRenderHandler = null;
+        if (handler == null) {
+            return;
+        }
+        final HandlerThread renderThread = mRenderThread;
+        mRenderThread = null;
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                mSlider.release();
+                renderThread.quit();
+            }
+        });
+        //the slider must be done with this thread before another one may pick it up.
+        boolean isInterrupted = false;
+        while (renderThread.isAlive()) {
+            try {
+                renderThread.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        mIsRenderScheduled = false;
+        mIsDirty = false;
+        mDirtyRect.setEmpty();
+        mIsDrainScheduled.set(false);
+        //touch events that did not make it, tasks stay queued for the next surface.
+        MotionEvent event;
+        while ((event = mTouchEvents.poll()) != null) {
+            event.recycle();
+        }
+    }
+
+    private void layoutSlider(int width, int height) {
+        mSurfaceWidth = width;
+        mSurfaceHeight = height;
+        mSlider.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        mSlider.layout(0, 0, width, height);
+        mSlider.invalidate();
+    }
+
+    private void drain() {
+        //clear the flag before polling, anything offered from now on schedules another pass.
+        mIsDrainScheduled.set(false);
+        Runnable task;
+        while ((task = mEvents.poll()) != null) {
+            task.run();
+        }
+        MotionEvent event;
+        while ((event = mTouchEvents.poll()) != null) {
+            mSlider.onTouchEvent(event);
+            event.recycle();
+        }
+    }
+
+    private void render() {
+        mIsRenderScheduled = false;
+        if (!mIsDirty || mSurfaceWidth <= 0 || mSurfaceHeight <= 0) {
+            return;
+        }
+        mIsDirty = false;
+        //the texture keeps the pixels outside of the dirty rect, lockCanvas may grow the rect (and the clip) though.
+        Canvas canvas = lockCanvas(mDirtyRect);
+        mDirtyRect.setEmpty();
+        if (canvas == null) {
+            return;
+        }
+        try {
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            mSlider.draw(canvas);
+        } finally {
+            unlockCanvasAndPost(canvas);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package san.radialslider;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/*
+ * The thumb_image drawable rasterized once at the thumb size and blitted every frame.
+ *
+ * Drawing the drawable itself each frame means re-rasterizing its paths for vector and layered drawables. The bitmap is
+ * only rebuilt when the drawable, the size or the tint changes. When tinted, the drawable's alpha is kept and its
+ * colors are replaced by the tint color. The drawable is taken as static, later changes to it (state, level,
+ * animation) are not picked up unless it is prepared again.
+ */
+final class ThumbImage {
+    private Drawable mDrawable;
+    private Bitmap mBitmap;
+    private int mSize = -1;
+    private boolean mIsTinted;
+    private int mTintColor;
+    private final Rect mDrawableBounds = new Rect();
+
+    /*
+     * Makes sure the bitmap shows the drawable at size x size pixels, tinted with tintColor if tinted.
+     * Does nothing if it already does.
+     */
+    void prepare(Drawable drawable, int size, boolean tinted, int tintColor) {
+        if (drawable == mDrawable && size == mSize && tinted == mIsTinted && (!tinted || tintColor == mTintColor)) {
+            return;
+        }
+        mDrawable = drawable;
+        mSize = size;
+        mIsTinted = tinted;
+        mTintColor = tintColor;
+        //not recycled, the last frame drawn with it may still be on its way to the screen.
+        mBitmap = null;
+
+        if (drawable == null || size <= 0) {
+            return;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        //the drawable is the slider's own, still leave its bounds the way they were.
+        drawable.copyBounds(mDrawableBounds);
+        drawable.setBounds(0, 0, size, size);
+        drawable.draw(canvas);
+        drawable.setBounds(mDrawableBounds);
+        if (tinted) {
+            canvas.drawColor(tintColor, PorterDuff.Mode.SRC_IN);
+        }
+        mBitmap = bitmap;
+    }
+
+    //draws the image centered at centerX, centerY.
+    void draw(Canvas canvas, int centerX, int centerY) {
+        if (mBitmap == null) {
+            return;
+        }
+        int halfSize = mSize / 2;
+        canvas.drawBitmap(mBitmap, centerX - halfSize, centerY - halfSize, null);
+    }
+}
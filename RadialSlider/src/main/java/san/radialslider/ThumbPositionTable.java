@@ -0,0 +1,121 @@
+package san.radialslider;
+
+/*
+ * Every step between min and max (every integer reading by default) has exactly one thumb position on the dial. When
+ * the thumb snaps to readings this table holds, per step, the reading, the thumb center and the tear drop's arc start angle and cone tip so that
+ * drawing a thumb is an array lookup instead of cos / sin / sqrt and a path rebuild.
+ *
+ * The table is built lazily on the first lookup after invalidate() and refuses to be built for ranges wider than
+ * MAX_POSITIONS, callers fall back to computing the position for those.
+ */
+final class ThumbPositionTable {
+    //6 arrays of 4 bytes and 1 of 8 bytes per position, 128KB at most.
+    static final int MAX_POSITIONS = 4096;
+
+    private int mMin;
+    private double mStepSize;
+    private int mCount;
+    private boolean mIsStale = true;
+    private boolean mIsAvailable;
+
+    private float[] mReadings = new float[0];
+    private int[] mThumbX = new int[0];
+    private int[] mThumbY = new int[0];
+    private float[] mTearDropStartAngle = new float[0];
+    private float[] mTearDropTipX = new float[0];
+    private float[] mTearDropTipY = new float[0];
+    private double[] mThumbAngle = new double[0];
+
+    private final float[] mTip = new float[2];
+
+    //call whenever the geometry, the range, the scale, the step size or the thumb size changes.
+    void invalidate() {
+        mIsStale = true;
+    }
+
+    /*
+     * Builds the table if it is stale, returns whether lookups can be served.
+     */
+    boolean ensure(SliderGeometry geometry, int thumbRadius) {
+        if (!mIsStale) {
+            return mIsAvailable;
+        }
+        mIsStale = false;
+
+        long count = geometry.getStepCount() + 1;
+        mIsAvailable = geometry.getMax() >= geometry.getMin() && count <= MAX_POSITIONS;
+        if (!mIsAvailable) {
+            mCount = 0;
+            return false;
+        }
+
+        mMin = geometry.getMin();
+        mStepSize = geometry.getStepSize();
+        mCount = (int) count;
+        if (mThumbX.length < mCount) {
+            mReadings = new float[mCount];
+            mThumbX = new int[mCount];
+            mThumbY = new int[mCount];
+            mTearDropStartAngle = new float[mCount];
+            mTearDropTipX = new float[mCount];
+            mTearDropTipY = new float[mCount];
+            mThumbAngle = new double[mCount];
+        }
+
+        int coneLength = thumbRadius + thumbRadius / 2;
+        for (int i = 0; i < mCount; i++) {
+            float reading = geometry.readingOfStep(i);
+            double angle = geometry.thumbAngleForReading(reading);
+            int thumbX = geometry.thumbX(angle);
+            int thumbY = geometry.thumbY(angle);
+            geometry.tearDropTip(thumbX, thumbY, coneLength, mTip);
+
+            mReadings[i] = reading;
+            mThumbAngle[i] = angle;
+            mThumbX[i] = thumbX;
+            mThumbY[i] = thumbY;
+            mTearDropStartAngle[i] = (float) SliderGeometry.tearDropStartAngle(angle);
+            mTearDropTipX[i] = mTip[0];
+            mTearDropTipY[i] = mTip[1];
+        }
+        return true;
+    }
+
+    /*
+     * Index of the reading in the table or -1 if the reading is not exactly one of the steps in the range.
+     * Only valid after ensure() returned true.
+     */
+    int indexOf(float reading) {
+        long index = Math.round((reading - mMin) / mStepSize);
+        return index >= 0 && index < mCount && mReadings[(int) index] == reading ? (int) index : -1;
+    }
+
+    float getReading(int index) {
+        return mReadings[index];
+    }
+
+    double getThumbAngle(int index) {
+        return mThumbAngle[index];
+    }
+
+    int getThumbX(int index) {
+        return mThumbX[index];
+    }
+
+    int getThumbY(int index) {
+        return mThumbY[index];
+    }
+
+    float getTearDropStartAngle(int index) {
+        return mTearDropStartAngle[index];
+    }
+
+    float getTearDropTipX(int index) {
+        return mTearDropTipX[index];
+    }
+
+    float getTearDropTipY(int index) {
+        return mTearDropTipY[index];
+    }
+
+}
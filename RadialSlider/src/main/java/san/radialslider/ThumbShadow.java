@@ -0,0 +1,96 @@
+package san.radialslider;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/*
+ * Pre-rasterized shadow of the tear drop shaped thumb.
+ *
+ * Paint.setShadowLayer only works on a software layer, so for the hardware accelerated pipeline we blur the thumb
+ * shape once into a bitmap and blit that (rotated to the thumb angle) under the thumb every frame.
+ * The bitmap is built for the thumb pointing at angle 0 i.e. sitting to the right of the dial center with its cone
+ * pointing left and is only rebuilt when the thumb radius or the shadow color changes.
+ */
+final class ThumbShadow {
+    private Bitmap mBitmap;
+    private int mThumbRadius = -1;
+    private int mShadowColor;
+    //where the thumb center lies inside the bitmap.
+    private float mOffsetX;
+    private float mOffsetY;
+
+    /*
+     * Makes sure the shadow bitmap matches the given thumb radius and shadow color.
+     * Does nothing if it already does.
+     */
+    void prepare(int thumbRadius, int shadowColor) {
+        if (thumbRadius == mThumbRadius && shadowColor == mShadowColor) {
+            return;
+        }
+        mThumbRadius = thumbRadius;
+        mShadowColor = shadowColor;
+
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+
+        //same blur radius the software path hands to setShadowLayer.
+        float blurRadius = thumbRadius / 4;
+        if (thumbRadius <= 0 || blurRadius <= 0) {
+            //setShadowLayer with a zero radius draws no shadow either.
+            return;
+        }
+
+        int padding = getPadding(thumbRadius);
+        int coneLength = thumbRadius + thumbRadius / 2;
+
+        int width = coneLength + thumbRadius + 2 * padding;
+        int height = 2 * (thumbRadius + padding);
+        mOffsetX = coneLength + padding;
+        mOffsetY = thumbRadius + padding;
+
+        Path path = new Path();
+        RectF pathRect = new RectF(mOffsetX - thumbRadius, mOffsetY - thumbRadius, mOffsetX + thumbRadius, mOffsetY + thumbRadius);
+        path.addArc(pathRect, (float) SliderGeometry.tearDropStartAngle(0), SliderGeometry.TEAR_DROP_ARC_SWEEP_ANGLE);
+        path.lineTo(mOffsetX - coneLength, mOffsetY);
+        path.close();
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(shadowColor);
+        paint.setMaskFilter(new BlurMaskFilter(blurRadius, BlurMaskFilter.Blur.NORMAL));
+
+        mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        new Canvas(mBitmap).drawPath(path, paint);
+    }
+
+    //how far the shadow reaches past the thumb shape.
+    static int getPadding(int thumbRadius) {
+        float blurRadius = thumbRadius / 4;
+        if (blurRadius <= 0) {
+            return 0;
+        }
+        //the blur spreads roughly 3 sigma past the shape, sigma being 0.57735 * radius + 0.5
+        return (int) Math.ceil(3 * (0.57735f * blurRadius + 0.5f));
+    }
+
+    /*
+     * Draws the shadow for a thumb centered at thumbX, thumbY. The angle is the thumb angle in degrees in the human
+     * coordinate system, the same one drawTearDropShapedThumb works with.
+     */
+    void draw(Canvas canvas, float thumbX, float thumbY, float thumbAngleInDegrees, Paint paint) {
+        if (mBitmap == null) {
+            return;
+        }
+        int saveCount = canvas.save();
+        //canvas rotation is clockwise, the thumb angle is counter clockwise.
+        canvas.rotate(-thumbAngleInDegrees, thumbX, thumbY);
+        canvas.drawBitmap(mBitmap, thumbX - mOffsetX, thumbY - mOffsetY, paint);
+        canvas.restoreToCount(saveCount);
+    }
+}
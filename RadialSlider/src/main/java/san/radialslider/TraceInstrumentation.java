@@ -0,0 +1,86 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link SliderInstrumentation} that emits android.os.Trace sections, visible in systrace / Perfetto on any build,
+ * e.g. "Slider#draw". Sections don't allocate.
+ * <p/>
+ * On API 29 and above the duration of the last section in nanoseconds can also be published as a trace counter named
+ * after the section, e.g. "Slider#draw.ns", see {@link #TraceInstrumentation(String, boolean)}. Off by default: the
+ * counter is set through reflection, which boxes the duration on every section.
+ * <p/>
+ * Use a different prefix per slider if you need to tell several dials apart in the trace.
+ */
+public class TraceInstrumentation implements SliderInstrumentation {
+    private static final String TAG = "TraceInstrumentation";
+    private static final String[] SECTION_NAMES = {"draw", "touch", "dispatch"};
+
+    private final String[] mSectionNames = new String[SECTION_COUNT];
+    private final String[] mCounterNames = new String[SECTION_COUNT];
+    private final long[] mSectionStartNanos = new long[SECTION_COUNT];
+    //Trace.setCounter is API 29, we compile against an older SDK. null when counters are off.
+    private final Method mSetCounter;
+    //reused for every counter, only the boxed duration is new.
+    private final Object[] mCounterArguments = new Object[2];
+
+    public TraceInstrumentation() {
+        this("Slider");
+    }
+
+    public TraceInstrumentation(String prefix) {
+        this(prefix, false);
+    }
+
+    /**
+     * @param publishCounters also publish section durations as trace counters, on API 29 and above.
+     */
+    public TraceInstrumentation(String prefix, boolean publishCounters) {
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            mSectionNames[section] = prefix + "#" + SECTION_NAMES[section];
+            mCounterNames[section] = mSectionNames[section] + ".ns";
+        }
+        mSetCounter = publishCounters ? findSetCounter() : null;
+    }
+
+    @Override
+    public void beginSection(int section) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(mSectionNames[section]);
+        }
+        mSectionStartNanos[section] = System.nanoTime();
+    }
+
+    @Override
+    public void endSection(int section) {
+        long duration = System.nanoTime() - mSectionStartNanos[section];
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+        if (mSetCounter != null) {
+            Object[] arguments = mCounterArguments;
+            arguments[0] = mCounterNames[section];
+            arguments[1] = duration;
+            try {
+                mSetCounter.invoke(null, arguments);
+            } catch (Exception e) {
+                Log.w(TAG, "could not publish trace counter", e);
+            }
+        }
+    }
+
+    private static Method findSetCounter() {
+        if (Build.VERSION.SDK_INT < 29) {
+            return null;
+        }
+        try {
+            return Trace.class.getMethod("setCounter", String.class, long.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
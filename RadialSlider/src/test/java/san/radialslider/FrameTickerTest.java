@@ -0,0 +1,92 @@
+package san.radialslider;
+
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class FrameTickerTest {
+    private final CountingCallback mCallback = new CountingCallback();
+    private final CountingCallback mOtherCallback = new CountingCallback();
+    private FrameTicker mTicker;
+
+    @Before
+    public void setUp() {
+        mTicker = FrameTicker.getInstance();
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @After
+    public void tearDown() {
+        mTicker.removeFrameCallback(mCallback);
+        mTicker.removeFrameCallback(mOtherCallback);
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void postedCallbackRunsOnceOnTheNextFrame() {
+        mTicker.postFrameCallback(mCallback);
+        mTicker.postFrameCallback(mCallback);
+
+        assertEquals(0, mCallback.mFrameCount);
+        runFrame();
+        assertEquals(1, mCallback.mFrameCount);
+        runFrame();
+        assertEquals(1, mCallback.mFrameCount);
+    }
+
+    @Test
+    public void removingTheLastCallbackCancelsTheFrame() {
+        mTicker.postFrameCallback(mCallback);
+        mTicker.removeFrameCallback(mCallback);
+        //the frame is dropped, a post right after has to schedule its own.
+        loseScheduledFrame();
+
+        mTicker.postFrameCallback(mOtherCallback);
+        runFrame();
+
+        assertEquals(0, mCallback.mFrameCount);
+        assertEquals(1, mOtherCallback.mFrameCount);
+    }
+
+    @Test
+    public void overdueFrameIsScheduledAnew() {
+        mTicker.postFrameCallback(mCallback);
+        loseScheduledFrame();
+        ShadowLooper.idleMainLooper(1000);
+        assertEquals(0, mCallback.mFrameCount);
+
+        mTicker.postFrameCallback(mOtherCallback);
+        runFrame();
+
+        assertEquals(1, mCallback.mFrameCount);
+        assertEquals(1, mOtherCallback.mFrameCount);
+    }
+
+    private static void runFrame() {
+        ShadowLooper.idleMainLooper(16);
+    }
+
+    //what the ticker sees when its looper drops the queue before the frame comes.
+    private static void loseScheduledFrame() {
+        ShadowLooper.getShadowMainLooper().getScheduler().reset();
+    }
+
+    private static final class CountingCallback implements FrameTicker.Callback {
+        int mFrameCount;
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameCount++;
+        }
+    }
+}
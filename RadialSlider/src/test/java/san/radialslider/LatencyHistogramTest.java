@@ -0,0 +1,103 @@
+package san.radialslider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueWithinTheirBounds() {
+        for (long micros = 0; micros < 1 << 22; micros = micros < 64 ? micros + 1 : micros + micros / 7) {
+            long nanos = micros * 1000 + 999;
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(nanos + " above its bucket", nanos <= LatencyHistogram.upperBoundOf(bucket));
+            if (bucket > 0) {
+                assertTrue(nanos + " below its bucket", nanos > LatencyHistogram.upperBoundOf(bucket - 1));
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreAtMostAnEighthWide() {
+        for (int bucket = 17; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            double lower = LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+            double upper = LatencyHistogram.upperBoundOf(bucket) + 1;
+            assertTrue("bucket " + bucket, (upper - lower) / lower <= 0.125);
+        }
+    }
+
+    @Test
+    public void outOfRangeValuesGoToTheOuterBuckets() {
+        assertEquals(0, LatencyHistogram.bucketOf(-5000));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void snapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1000000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        histogram.record(1000000000L);
+
+        assertEquals(100, snapshot.getCount());
+        assertEquals(1000000, snapshot.getMin());
+        assertEquals(100000000, snapshot.getMax());
+        assertEquals(50500000, snapshot.getMean());
+        assertWithinAnEighth(50000000, snapshot.getPercentile(50));
+        assertWithinAnEighth(99000000, snapshot.getPercentile(99));
+        assertEquals(100000000, snapshot.getPercentile(100));
+        long total = 0;
+        for (int bucket = 0; bucket < snapshot.getBucketCount(); bucket++) {
+            total += snapshot.getCountAt(bucket);
+        }
+        assertEquals(100, total);
+    }
+
+    @Test
+    public void reset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5000);
+        histogram.reset();
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+
+    @Test
+    public void recordingFromSeveralThreadsLosesNothing() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= 10000; i++) {
+                        histogram.record(i * 1000L + offset);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(40000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMin());
+        assertEquals(10000003, snapshot.getMax());
+        assertEquals((10000 * 10001 / 2 * 1000L * 4 + 10000 * 6) / 40000, snapshot.getMean());
+    }
+
+    private static void assertWithinAnEighth(long expected, long actual) {
+        assertTrue(actual + " is not close to " + expected, actual >= expected && actual <= expected * 1.125);
+    }
+}
@@ -0,0 +1,80 @@
+package san.radialslider;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class ReadingTextCacheTest {
+    //Robolectric doesn't measure text, this paint gives digits a width and ink above the baseline like a real font.
+    private final Paint mPaint = new Paint() {
+        @Override
+        public float measureText(String text) {
+            return 10 * text.length();
+        }
+
+        @Override
+        public void getTextBounds(String text, int start, int end, Rect bounds) {
+            bounds.set(1, -28, 10 * (end - start) - 1, 0);
+        }
+    };
+
+    @Test
+    public void textIsFormattedAndMeasuredOnce() {
+        ReadingTextCache cache = new ReadingTextCache(mPaint);
+
+        String text = cache.getText(cache.obtain(42, 0));
+
+        assertEquals("42", text);
+        assertSame(text, cache.getText(cache.obtain(42, 0)));
+        assertEquals("42.0", cache.getText(cache.obtain(42, 1)));
+        assertEquals("2.5", cache.getText(cache.obtain(2.5f, 1)));
+    }
+
+    @Test
+    public void theLeastRecentlyUsedReadingIsEvictedAtCapacity() {
+        ReadingTextCache cache = new ReadingTextCache(mPaint);
+        String[] texts = new String[ReadingTextCache.CAPACITY];
+        for (int reading = 0; reading < ReadingTextCache.CAPACITY; reading++) {
+            texts[reading] = cache.getText(cache.obtain(reading, 0));
+        }
+        //0 was used again, 1 is the least recently used now.
+        assertSame(texts[0], cache.getText(cache.obtain(0, 0)));
+
+        String pastCapacity = cache.getText(cache.obtain(ReadingTextCache.CAPACITY, 0));
+
+        assertSame(texts[0], cache.getText(cache.obtain(0, 0)));
+        for (int reading = 2; reading < ReadingTextCache.CAPACITY; reading++) {
+            assertSame(texts[reading], cache.getText(cache.obtain(reading, 0)));
+        }
+        //1 was evicted, formatted anew it evicts the one past capacity, the least recently used by now.
+        assertNotSame(texts[1], cache.getText(cache.obtain(1, 0)));
+        assertSame(texts[0], cache.getText(cache.obtain(0, 0)));
+        assertNotSame(pastCapacity, cache.getText(cache.obtain(ReadingTextCache.CAPACITY, 0)));
+    }
+
+    @Test
+    public void textIsCenteredByItsWidthAndInk() {
+        ReadingTextCache cache = new ReadingTextCache(mPaint);
+        int slot = cache.obtain(123, 0);
+        float centerX = 200;
+        float centerY = 100;
+
+        float left = centerX - cache.getWidth(slot) / 2;
+        float baseline = centerY + cache.getBaselineOffset(slot);
+
+        assertEquals(centerX, left + mPaint.measureText("123") / 2, 0);
+        //the glyphs reach from 28 above the baseline down to it.
+        assertEquals(centerY, baseline + (-28 + 0) / 2f, 0);
+    }
+}
@@ -0,0 +1,189 @@
+package san.radialslider;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Canvas that records what is drawn into it instead of rasterizing, one line per call, and counts the draw calls.
+ * The recorded lines make the draw op snapshots compared against the goldens, coordinates are rounded to one decimal
+ * so that they are stable across JVMs.
+ *
+ * A clip can be set to test culling, quickReject answers against it.
+ */
+class RecordingCanvas extends Canvas {
+    private final List<String> mOps = new ArrayList<>();
+    private final RectF mClip = new RectF();
+    private int mDrawCount;
+    private int mSaveCount = 1;
+    private boolean mIsRecording = true;
+
+    RecordingCanvas(int width, int height) {
+        mClip.set(0, 0, width, height);
+    }
+
+    void setClip(float left, float top, float right, float bottom) {
+        mClip.set(left, top, right, bottom);
+    }
+
+    //keeps counting but stops recording the lines, for allocation measurements.
+    void setRecording(boolean recording) {
+        mIsRecording = recording;
+    }
+
+    List<String> getOps() {
+        return mOps;
+    }
+
+    int getDrawCount() {
+        return mDrawCount;
+    }
+
+    void reset() {
+        mOps.clear();
+        mDrawCount = 0;
+    }
+
+    String getSnapshot() {
+        StringBuilder snapshot = new StringBuilder();
+        for (String op : mOps) {
+            snapshot.append(op).append('\n');
+        }
+        return snapshot.toString();
+    }
+
+    //callers check mIsRecording first, the varargs would allocate.
+    private void record(String format, Object... arguments) {
+        mOps.add(String.format(Locale.US, format, arguments));
+    }
+
+    private static String describe(Paint paint) {
+        if (paint == null) {
+            return "null";
+        }
+        String description = String.format(Locale.US, "color=#%08x style=%s stroke=%.1f", paint.getColor(),
+                paint.getStyle(), paint.getStrokeWidth());
+        Shader shader = paint.getShader();
+        return shader != null ? description + " shader=" + shader.getClass().getSimpleName() : description;
+    }
+
+    @Override
+    public int save() {
+        if (mIsRecording) {
+            record("save");
+        }
+        return mSaveCount++;
+    }
+
+    @Override
+    public void restore() {
+        if (mIsRecording) {
+            record("restore");
+        }
+        mSaveCount--;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        if (mIsRecording) {
+            record("restoreToCount %d", saveCount);
+        }
+        mSaveCount = saveCount;
+    }
+
+    @Override
+    public int getSaveCount() {
+        return mSaveCount;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        if (mIsRecording) {
+            record("translate %.1f %.1f", dx, dy);
+        }
+    }
+
+    @Override
+    public void rotate(float degrees) {
+        if (mIsRecording) {
+            record("rotate %.1f", degrees);
+        }
+    }
+
+    @Override
+    public boolean quickReject(RectF rect, EdgeType type) {
+        return !RectF.intersects(mClip, rect);
+    }
+
+    @Override
+    public boolean getClipBounds(Rect bounds) {
+        mClip.roundOut(bounds);
+        return !bounds.isEmpty();
+    }
+
+    @Override
+    public void drawColor(int color) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawColor #%08x", color);
+        }
+    }
+
+    @Override
+    public void drawColor(int color, PorterDuff.Mode mode) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawColor #%08x %s", color, mode);
+        }
+    }
+
+    @Override
+    public void drawArc(RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawArc [%.1f %.1f %.1f %.1f] start=%.1f sweep=%.1f %s", oval.left, oval.top, oval.right,
+                    oval.bottom, startAngle, sweepAngle, describe(paint));
+        }
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawPath %s", describe(paint));
+        }
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawBitmap %dx%d at %.1f %.1f", bitmap.getWidth(), bitmap.getHeight(), left, top);
+        }
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawText \"%s\" at %.1f %.1f %s", text, x, y, describe(paint));
+        }
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        mDrawCount++;
+        if (mIsRecording) {
+            record("drawText \"%s\" at %.1f %.1f %s", new String(text, index, count), x, y, describe(paint));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package san.radialslider;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.thumbX;
+import static san.radialslider.SliderFixture.thumbY;
+import static san.radialslider.SliderFixture.touch;
+
+/*
+ * Bytes allocated by warmed-up frames and input events, measured on the test thread with the thread allocation
+ * counter. Every measurement is compared with a baseline run the same way: an empty loop for the input events, and
+ * for frames a stand-in frame that only builds and draws as many tear drop paths as the slider frame draws thumbs,
+ * into a canvas that does not record. Robolectric's Path shadow keeps an object per path segment, which is its cost
+ * and not the slider's, the stand-in pays it alike. Whatever the slider allocates on top shows up as the difference
+ * of the totals, no per-frame average rounds it away. A measurement disturbed by the JVM is taken again.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderAllocationTest {
+    //over all rounds, not per round. Reading the allocation counter allocates a few dozen bytes itself (64 on JDK 8)
+    //that the measured run and the baseline don't always pay alike. A single 16 byte object per round would add
+    //up to ROUNDS * 16 bytes.
+    private static final long TOLERANCE_BYTES = 256;
+
+    private static final int WARM_UP_ROUNDS = 200;
+    private static final int ROUNDS = 1000;
+    private static final int ATTEMPTS = 3;
+
+    //one round of what is measured.
+    private interface Round {
+        void run(int index);
+    }
+
+    private static final Round NOTHING = new Round() {
+        @Override
+        public void run(int index) {
+        }
+    };
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+    //a slider whose frames were held back by pausing the looper.
+    private Slider mPausedSlider;
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        //the frames held back must not leak into the next test through the thread's frame ticker.
+        if (mPausedSlider != null) {
+            mPausedSlider.release();
+        }
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void idleFrame() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+
+        assertAllocationFree("idle frame", frames(slider), standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void idleFrameWithMetrics() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setMetrics(new SliderMetrics());
+
+        assertAllocationFree("idle frame with metrics", frames(slider), standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void idleFrameWithTracing() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setInstrumentation(new TraceInstrumentation());
+
+        assertAllocationFree("idle frame with tracing", frames(slider), standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void dragFrameWithGradientProgress() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setProgressColors(0xFF00FF00, 0xFFFFFF00, 0xFFFF0000);
+        slider.onDraw(newCanvas());
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        slider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 55));
+
+        assertAllocationFree("drag frame with a gradient progress", frames(slider),
+                standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void dragFrame() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.onDraw(newCanvas());
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        slider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 55));
+
+        assertAllocationFree("drag frame", frames(slider), standInFrames(countTearDrops(slider)));
+    }
+
+    //the tear drop, its reading and the arc between the thumbs come from preallocated objects and cached texts.
+    @Test
+    public void framesOfChangingReadings() {
+        final Slider slider = newSlider();
+        slider.setThumbReading(30);
+        final RecordingCanvas canvas = newCanvas();
+
+        assertAllocationFree("frame of a changing reading", new Round() {
+            @Override
+            public void run(int index) {
+                slider.setThumbReading((index & 1) == 0 ? 40 : 60);
+                slider.onDraw(canvas);
+            }
+        }, standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void rangeFrame() {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(20, 80);
+
+        assertAllocationFree("range frame", frames(slider), standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void softwareFrame() {
+        Slider slider = newSlider();
+        slider.setRenderingMode(Slider.RENDERING_MODE_SOFTWARE);
+        slider.setThumbReading(30);
+
+        assertAllocationFree("software frame", frames(slider), standInFrames(countTearDrops(slider)));
+    }
+
+    @Test
+    public void moveEvent() {
+        final Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.onDraw(newCanvas());
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+
+        //the events are made up front, back and forth between two readings so that every event moves the thumb.
+        long now = SystemClock.uptimeMillis();
+        final MotionEvent[] moves = new MotionEvent[2];
+        for (int i = 0; i < moves.length; i++) {
+            float reading = i == 0 ? 40 : 60;
+            moves[i] = MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, thumbX(reading), thumbY(reading), 0);
+        }
+
+        assertAllocationFree("move event", new Round() {
+            @Override
+            public void run(int index) {
+                slider.onTouchEvent(moves[index & 1]);
+            }
+        }, NOTHING);
+    }
+
+    @Test
+    public void rotaryInput() {
+        final Slider slider = newSlider();
+        mPausedSlider = slider;
+        slider.setThumbReading(30);
+        slider.setKeyInputEnabled(true);
+        slider.onDraw(newCanvas());
+        final long now = SystemClock.uptimeMillis();
+        //inputs only add up until the frame, what the frame costs is measured by the frame tests.
+        ShadowLooper.pauseMainLooper();
+
+        assertAllocationFree("rotary input", new Round() {
+            @Override
+            public void run(int index) {
+                slider.onRotaryInput((index & 1) == 0 ? -1 : 1, now + index * 200);
+            }
+        }, NOTHING);
+    }
+
+    /*
+     * Measures ROUNDS warmed-up rounds and as many baseline rounds. Allocations of the measured code show up on every
+     * attempt, so only when none of the attempts gets within TOLERANCE_BYTES of its baseline does it fail.
+     */
+    private void assertAllocationFree(String what, Round round, Round baseline) {
+        long bytes = 0;
+        long baselineBytes = 0;
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            bytes = measure(round, attempt);
+            baselineBytes = measure(baseline, attempt);
+            if (bytes - baselineBytes <= TOLERANCE_BYTES) {
+                return;
+            }
+        }
+        fail(ROUNDS + " rounds of " + what + " allocate " + bytes + " bytes, the baseline is " + baselineBytes);
+    }
+
+    private long measure(Round round, int attempt) {
+        //round indices keep growing across attempts, for rounds that pass them on as event times.
+        int index = attempt * (WARM_UP_ROUNDS + ROUNDS);
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            round.run(index++);
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run(index++);
+        }
+        return allocatedBytes() - before;
+    }
+
+    //frames of the slider.
+    private static Round frames(final Slider slider) {
+        final RecordingCanvas canvas = newCanvas();
+        return new Round() {
+            @Override
+            public void run(int index) {
+                slider.onDraw(canvas);
+            }
+        };
+    }
+
+    //frames that only draw tearDrops tear drop paths, made as the slider makes them.
+    private static Round standInFrames(final int tearDrops) {
+        final RecordingCanvas canvas = newCanvas();
+        final Path path = new Path();
+        final RectF pathRect = new RectF(0, 0, 50, 50);
+        final Paint paint = new Paint();
+        return new Round() {
+            @Override
+            public void run(int index) {
+                for (int i = 0; i < tearDrops; i++) {
+                    path.reset();
+                    path.addArc(pathRect, 0, SliderGeometry.TEAR_DROP_ARC_SWEEP_ANGLE);
+                    path.lineTo(75, 25);
+                    path.close();
+                    canvas.drawPath(path, paint);
+                }
+            }
+        };
+    }
+
+    //the tear drops the slider's next frame draws.
+    private static int countTearDrops(Slider slider) {
+        RecordingCanvas canvas = new RecordingCanvas(SliderFixture.SIZE, SliderFixture.SIZE);
+        slider.onDraw(canvas);
+        int tearDrops = 0;
+        for (String op : canvas.getOps()) {
+            if (op.startsWith("drawPath")) {
+                tearDrops++;
+            }
+        }
+        return tearDrops;
+    }
+
+    private static RecordingCanvas newCanvas() {
+        RecordingCanvas canvas = new RecordingCanvas(SliderFixture.SIZE, SliderFixture.SIZE);
+        canvas.setRecording(false);
+        return canvas;
+    }
+
+    private long allocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
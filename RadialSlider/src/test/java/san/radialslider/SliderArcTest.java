@@ -0,0 +1,80 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.assertMatchesGolden;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.touchAtSweepAngle;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderArcTest {
+
+    @Test
+    public void changingTheArcKeepsTheReadings() {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(20, 80);
+
+        slider.setArc(270, 360);
+
+        assertEquals(20, slider.getThumbReading(0), 0);
+        assertEquals(80, slider.getThumbReading(1), 0);
+        assertEquals(270, slider.getArcStartAngle(), 0);
+        assertEquals(360, slider.getArcSweepAngle(), 0);
+    }
+
+    @Test
+    public void semicircleFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setArc(180, 180);
+        slider.setThumbReading(50);
+
+        //the thumb on top of the dial, at 12 o'clock.
+        assertMatchesGolden("semicircle_frame", drawFrame(slider).getSnapshot());
+    }
+
+    @Test
+    public void draggingAroundASemicircle() {
+        Slider slider = newSlider();
+        slider.setArc(180, 180);
+        slider.setThumbReading(0);
+        drawFrame(slider);
+
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_DOWN, 180));
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_MOVE, 225));
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_MOVE, 270));
+
+        assertEquals(50, slider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void aFullCircleStopsWhereItsEndsMeet() {
+        Slider slider = newSlider();
+        slider.setArc(270, 360);
+        slider.setThumbReading(95);
+        drawFrame(slider);
+
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_DOWN, 270 + 342));
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_MOVE, 270 + 355));
+        assertEquals(99, slider.getThumbReading(0), 0);
+
+        //past 12 o'clock, where min is.
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_MOVE, 270 + 5));
+        assertEquals(100, slider.getThumbReading(0), 0);
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_MOVE, 270 + 20));
+        assertEquals(100, slider.getThumbReading(0), 0);
+
+        //and back.
+        slider.onTouchEvent(touchAtSweepAngle(MotionEvent.ACTION_MOVE, 270 + 324));
+        assertEquals(90, slider.getThumbReading(0), 0);
+    }
+}
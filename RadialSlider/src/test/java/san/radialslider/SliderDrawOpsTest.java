@@ -0,0 +1,96 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.assertMatchesGolden;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.touch;
+
+/*
+ * What a frame draws, checked against the golden snapshots in resources/san/radialslider/golden, and how many draw
+ * calls it takes. Raise a budget only together with the change that needs it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderDrawOpsTest {
+    //dial layer, thumb shadow, thumb, reading.
+    private static final int IDLE_FRAME_DRAW_OPS = 4;
+    //plus the thumb being left behind and the arc between the two.
+    private static final int DRAG_FRAME_DRAW_OPS = 8;
+    //the dial layer and three per thumb.
+    private static final int RANGE_FRAME_DRAW_OPS = 7;
+
+    @Test
+    public void idleFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+
+        RecordingCanvas canvas = drawFrame(slider);
+
+        assertEquals(IDLE_FRAME_DRAW_OPS, canvas.getDrawCount());
+        assertMatchesGolden("idle_frame", canvas.getSnapshot());
+    }
+
+    @Test
+    public void dragFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        drawFrame(slider);
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        slider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 55));
+
+        RecordingCanvas canvas = drawFrame(slider);
+
+        assertEquals(DRAG_FRAME_DRAW_OPS, canvas.getDrawCount());
+        assertMatchesGolden("drag_frame", canvas.getSnapshot());
+    }
+
+    @Test
+    public void snappedDragFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setSnapToReadings(true);
+        slider.setThumbReading(30);
+        drawFrame(slider);
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        slider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 55));
+
+        RecordingCanvas canvas = drawFrame(slider);
+
+        assertEquals(DRAG_FRAME_DRAW_OPS, canvas.getDrawCount());
+        assertMatchesGolden("snapped_drag_frame", canvas.getSnapshot());
+    }
+
+    @Test
+    public void rangeFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(20, 80);
+
+        RecordingCanvas canvas = drawFrame(slider);
+
+        assertEquals(RANGE_FRAME_DRAW_OPS, canvas.getDrawCount());
+        assertMatchesGolden("range_frame", canvas.getSnapshot());
+    }
+
+    @Test
+    public void thumbsOutsideOfTheClipAreNotDrawn() throws Exception {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(0, 100);
+
+        RecordingCanvas canvas = new RecordingCanvas(SliderFixture.SIZE, SliderFixture.SIZE);
+        //the left half, the thumb at 100 sits in the bottom right.
+        canvas.setClip(0, 0, SliderFixture.SIZE / 2, SliderFixture.SIZE);
+        slider.onDraw(canvas);
+
+        assertEquals(IDLE_FRAME_DRAW_OPS, canvas.getDrawCount());
+    }
+}
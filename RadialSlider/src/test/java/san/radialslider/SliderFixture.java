@@ -0,0 +1,116 @@
+package san.radialslider;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/*
+ * Sliders laid out the same way for every test, touch events on their thumbs and the golden snapshots.
+ *
+ * With the default style (stroke 22, padding 10, thumb radius 50) a 400 x 400 slider has its dial centered at 200, 200
+ * and its thumbs 226 away from the center, on the arc from 120 to 420 degrees.
+ */
+final class SliderFixture {
+    static final int SIZE = 400;
+    static final int MIN = 0;
+    static final int MAX = 100;
+    private static final int THUMB_DISTANCE = 226;
+    //where failing snapshots are written, relative to the module.
+    private static final String ACTUAL_SNAPSHOT_DIR = "build/snapshots";
+
+    private static final SliderGeometry sGeometry = new SliderGeometry(120, 300);
+
+    static {
+        sGeometry.setCenter(SIZE / 2, SIZE / 2);
+        sGeometry.setRange(MIN, MAX);
+        sGeometry.setThumbDistance(THUMB_DISTANCE);
+    }
+
+    private SliderFixture() {
+    }
+
+    static Slider newSlider() {
+        Slider slider = new Slider(RuntimeEnvironment.application);
+        slider.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        slider.layout(0, 0, SIZE, SIZE);
+        return slider;
+    }
+
+    static RecordingCanvas drawFrame(Slider slider) {
+        RecordingCanvas canvas = new RecordingCanvas(SIZE, SIZE);
+        slider.onDraw(canvas);
+        return canvas;
+    }
+
+    static float thumbX(float reading) {
+        return sGeometry.thumbX(sGeometry.thumbAngleForReading(reading));
+    }
+
+    static float thumbY(float reading) {
+        return sGeometry.thumbY(sGeometry.thumbAngleForReading(reading));
+    }
+
+    //a touch event right on the center of the thumb with the given reading.
+    static MotionEvent touch(int action, float reading) {
+        long now = SystemClock.uptimeMillis();
+        return MotionEvent.obtain(now, now, action, thumbX(reading), thumbY(reading), 0);
+    }
+
+    //a touch event on the thumbs' path at the given angle, in degrees clockwise from 3 o'clock as for drawArc.
+    static MotionEvent touchAtSweepAngle(int action, double sweepAngle) {
+        long now = SystemClock.uptimeMillis();
+        double angle = Math.toRadians(sweepAngle);
+        return MotionEvent.obtain(now, now, action, (float) (SIZE / 2 + THUMB_DISTANCE * Math.cos(angle)),
+                (float) (SIZE / 2 + THUMB_DISTANCE * Math.sin(angle)), 0);
+    }
+
+    /*
+     * Compares the snapshot with golden/<name>.txt. On a mismatch the actual snapshot is written to build/snapshots,
+     * copy it over the golden once the change is intended.
+     */
+    static void assertMatchesGolden(String name, String snapshot) throws IOException {
+        String golden = null;
+        InputStream in = SliderFixture.class.getResourceAsStream("golden/" + name + ".txt");
+        if (in != null) {
+            try {
+                Scanner scanner = new Scanner(in, "UTF-8").useDelimiter("\\A");
+                golden = scanner.hasNext() ? scanner.next() : "";
+            } finally {
+                in.close();
+            }
+        }
+        if (snapshot.equals(golden)) {
+            return;
+        }
+
+        File directory = new File(ACTUAL_SNAPSHOT_DIR);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+        File actual = new File(directory, name + ".txt");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(actual), "UTF-8");
+        try {
+            writer.write(snapshot);
+        } finally {
+            writer.close();
+        }
+        if (golden == null) {
+            fail("No golden for " + name + ", the snapshot was written to " + actual.getAbsolutePath());
+        }
+        assertEquals("Snapshot " + name + " changed, see " + actual.getAbsolutePath(), golden, snapshot);
+    }
+}
@@ -0,0 +1,230 @@
+package san.radialslider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SliderGeometryTest {
+    private SliderGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mGeometry = new SliderGeometry(120, 300);
+        mGeometry.setCenter(200, 200);
+        mGeometry.setRange(0, 100);
+        mGeometry.setThumbDistance(226);
+    }
+
+    @Test
+    public void linearReadingsAreTheIntegerOnes() {
+        for (double offset = 0; offset <= 300; offset += 0.37) {
+            double angle = mGeometry.thumbAngleForSweepOffset(offset);
+            int expected = (int) Math.round((mGeometry.toSweepAngle(angle) - 120) * (100 / 300f));
+            assertEquals(expected, mGeometry.readingAt(angle), 0);
+        }
+    }
+
+    @Test
+    public void logarithmicReadingsGrowByTheSameFactorPerPieceOfArc() {
+        mGeometry.setRange(10, 10000);
+        mGeometry.setScale(SliderScale.logarithmic());
+
+        assertEquals(10, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(0)), 0);
+        assertEquals(100, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(100)), 1);
+        assertEquals(1000, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(200)), 1);
+        assertEquals(10000, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(300)), 0);
+    }
+
+    @Test
+    public void nonLinearReadingsMapBackToTheirAngles() {
+        mGeometry.setRange(20, 20000);
+        mGeometry.setScale(SliderScale.logarithmic());
+        float previous = Float.NEGATIVE_INFINITY;
+        for (double offset = 0; offset <= 300; offset += 0.5) {
+            float reading = mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(offset));
+            assertTrue(reading >= previous);
+            previous = reading;
+
+            double angle = mGeometry.thumbAngleForReading(reading);
+            assertEquals(reading, mGeometry.readingAt(angle), 0);
+        }
+    }
+
+    @Test
+    public void exponentialScale() {
+        mGeometry.setScale(SliderScale.exponential(4));
+
+        float middle = mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(150));
+        //(e^2 - 1) / (e^4 - 1) of the range.
+        assertEquals(12, middle, 0);
+    }
+
+    @Test
+    public void piecewiseScale() {
+        mGeometry.setScale(SliderScale.piecewise(new float[]{0, 0.5f, 1}, new float[]{0, 0.1f, 1}));
+
+        assertEquals(5, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(75)), 0);
+        assertEquals(10, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(150)), 0);
+        assertEquals(55, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(225)), 0);
+        assertEquals(225, mGeometry.sweepOffset(mGeometry.thumbAngleForReading(55)), 1e-4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scalesHaveToIncrease() {
+        mGeometry.setScale(new SliderScale() {
+            @Override
+            public double readingAt(double position, double min, double max) {
+                return max - (max - min) * position;
+            }
+        });
+    }
+
+    @Test
+    public void rejectedScaleChangesNothing() {
+        SliderScale logarithmic = SliderScale.logarithmic();
+        mGeometry.setScale(logarithmic);
+        double angle = mGeometry.thumbAngleForReading(10);
+        float reading = mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(90));
+
+        try {
+            mGeometry.setScale(new SliderScale() {
+                @Override
+                public double readingAt(double position, double min, double max) {
+                    return position < 0.5 ? max : min;
+                }
+            });
+            fail("A decreasing scale was taken");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertSame(logarithmic, mGeometry.getScale());
+        assertEquals(angle, mGeometry.thumbAngleForReading(10), 0);
+        assertEquals(reading, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(90)), 0);
+    }
+
+    @Test
+    public void fractionalSteps() {
+        mGeometry.setRange(0, 10);
+        mGeometry.setStepSize(0.25);
+
+        assertEquals(2, mGeometry.getStepDecimals());
+        assertEquals(40, mGeometry.getStepCount());
+        for (double offset = 0; offset <= 300; offset += 1.1) {
+            float reading = mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(offset));
+            assertEquals(0, reading * 4 - Math.round(reading * 4), 0);
+        }
+        assertEquals(2.5f, mGeometry.snapToStep(2.6), 0);
+    }
+
+    @Test
+    public void stepsThatDontDivideTheRangeEndAtMax() {
+        mGeometry.setRange(0, 10);
+        mGeometry.setStepSize(3);
+
+        assertEquals(4, mGeometry.getStepCount());
+        assertEquals(10, mGeometry.readingOfStep(4), 0);
+        assertEquals(10, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(300)), 0);
+    }
+
+    @Test
+    public void thumbPositionTableHoldsEveryStep() {
+        mGeometry.setStepSize(0.5);
+        ThumbPositionTable table = new ThumbPositionTable();
+
+        assertTrue(table.ensure(mGeometry, 50));
+        int index = table.indexOf(30.5f);
+        assertEquals(61, index);
+        assertEquals(30.5f, table.getReading(index), 0);
+        assertEquals(mGeometry.thumbAngleForReading(30.5), table.getThumbAngle(index), 0);
+        assertEquals(-1, table.indexOf(30.25f));
+    }
+
+    @Test
+    public void defaultArcLimits() {
+        assertTrue(mGeometry.isValidAngle(Math.toRadians(-120)));
+        assertTrue(mGeometry.isValidAngle(Math.toRadians(-60)));
+        assertTrue(mGeometry.isValidAngle(Math.PI));
+        assertTrue(mGeometry.isValidAngle(-Math.PI));
+        assertFalse(mGeometry.isValidAngle(Math.toRadians(-90)));
+        assertFalse(mGeometry.isValidAngle(Double.NaN));
+        assertEquals(-120, mGeometry.angleForReading(0), 0);
+        assertEquals(-60, mGeometry.angleForReading(100), 0);
+    }
+
+    @Test
+    public void fullCircle() {
+        //starting at 12 o'clock.
+        mGeometry.setArc(270, 360);
+
+        assertTrue(mGeometry.isFullCircle());
+        for (double angle = -Math.PI; angle <= Math.PI; angle += 0.01) {
+            assertTrue(mGeometry.isValidAngle(angle));
+        }
+        assertEquals(0, mGeometry.readingAt(Math.PI / 2), 0);
+        assertEquals(25, mGeometry.readingAt(0), 0);
+        assertEquals(50, mGeometry.readingAt(-Math.PI / 2), 0);
+        assertEquals(75, mGeometry.readingAt(Math.PI), 0);
+        //the ends meet, max is still read back as max.
+        assertEquals(100, mGeometry.readingAt(mGeometry.thumbAngleForReading(100)), 0);
+        assertEquals(100, mGeometry.readingAt(mGeometry.thumbAngleForSweepOffset(360)), 0);
+    }
+
+    @Test
+    public void upperSemicircle() {
+        mGeometry.setArc(180, 180);
+
+        assertTrue(mGeometry.isValidAngle(Math.PI / 2));
+        assertTrue(mGeometry.isValidAngle(0));
+        assertTrue(mGeometry.isValidAngle(Math.PI));
+        assertFalse(mGeometry.isValidAngle(-Math.PI / 2));
+        assertEquals(0, mGeometry.readingAt(Math.PI), 0);
+        assertEquals(50, mGeometry.readingAt(Math.PI / 2), 0);
+        assertEquals(100, mGeometry.readingAt(0), 0);
+    }
+
+    @Test
+    public void lowerSemicircle() {
+        mGeometry.setArc(0, 180);
+
+        assertTrue(mGeometry.isValidAngle(-Math.PI / 2));
+        assertFalse(mGeometry.isValidAngle(Math.PI / 2));
+        assertEquals(50, mGeometry.readingAt(-Math.PI / 2), 0);
+        assertEquals(-Math.PI / 2, mGeometry.thumbAngleForReading(50), 1e-6);
+    }
+
+    @Test
+    public void arcsAreContinuousAcrossThreeOClock() {
+        //from 1:30 over 3 to 4:30.
+        mGeometry.setArc(-45, 90);
+
+        assertEquals(315, mGeometry.getArcStartAngle(), 0);
+        assertTrue(mGeometry.isValidAngle(0));
+        assertFalse(mGeometry.isValidAngle(Math.PI));
+        assertEquals(50, mGeometry.readingAt(0), 0);
+        for (int reading = 0; reading <= 100; reading++) {
+            assertEquals(reading, mGeometry.readingAt(mGeometry.thumbAngleForReading(reading)), 0);
+            assertEquals(reading * 0.9, mGeometry.sweepOffset(mGeometry.thumbAngleForReading(reading)), 1e-5);
+        }
+    }
+
+    @Test
+    public void scalesFollowTheArc() {
+        mGeometry.setRange(10, 10000);
+        mGeometry.setScale(SliderScale.logarithmic());
+        mGeometry.setArc(180, 180);
+
+        assertEquals(10, mGeometry.readingAt(Math.PI), 0);
+        assertEquals(100, mGeometry.readingAt(Math.toRadians(120)), 1);
+        assertEquals(10000, mGeometry.readingAt(0), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void arcsSweepAtMostAFullCircle() {
+        mGeometry.setArc(0, 361);
+    }
+}
@@ -0,0 +1,118 @@
+package san.radialslider;
+
+import android.graphics.Rect;
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.newSlider;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderGroupTest {
+    private static final int SLIDER_COUNT = 3;
+
+    private final Slider[] mSliders = new Slider[SLIDER_COUNT];
+    private final int[] mInvalidationCounts = new int[SLIDER_COUNT];
+    private SliderGroup mGroup;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < SLIDER_COUNT; i++) {
+            final int index = i;
+            mSliders[i] = newSlider();
+            mSliders[i].setThumbReading(10);
+            mSliders[i].setRenderHost(new Slider.RenderHost() {
+                @Override
+                public void onSliderInvalidated(Rect dirty) {
+                    mInvalidationCounts[index]++;
+                }
+
+                @Override
+                public void post(Runnable task) {
+                    task.run();
+                }
+            });
+        }
+        mGroup = new SliderGroup(mSliders);
+        //frames run when runFrame() says so, not as soon as they are posted.
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @After
+    public void tearDown() {
+        //no frame held back may leak into the next test through the thread's frame ticker.
+        runFrame();
+        for (Slider slider : mSliders) {
+            slider.release();
+        }
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void readingsAreAppliedOnTheNextFrame() {
+        mGroup.postReadings(new float[]{20, 30, 40});
+
+        assertEquals(10, mSliders[0].getThumbReading(0), 0);
+        runFrame();
+
+        assertEquals(20, mSliders[0].getThumbReading(0), 0);
+        assertEquals(30, mSliders[1].getThumbReading(0), 0);
+        assertEquals(40, mSliders[2].getThumbReading(0), 0);
+    }
+
+    @Test
+    public void onlySlidersWhoseRoundedReadingChangesAreUpdated() {
+        mGroup.postReadings(new float[]{10.3f, 50, 10});
+        runFrame();
+
+        assertEquals(1, mGroup.getLastChangedCount());
+        assertEquals(0, mInvalidationCounts[0]);
+        assertEquals(1, mInvalidationCounts[1]);
+        assertEquals(0, mInvalidationCounts[2]);
+        assertEquals(10, mSliders[0].getThumbReading(0), 0);
+    }
+
+    @Test
+    public void postsBeforeAFrameAreAppliedTogether() {
+        mGroup.postReadings(new float[]{20, 30, 40});
+        mGroup.postReading(1, 60);
+        mGroup.postReadings(new float[]{25, 35, 45});
+        mGroup.postReading(2, 70);
+        runFrame();
+
+        assertEquals(1, mGroup.getUpdateDuration().snapshot().getCount());
+        assertEquals(3, mGroup.getLastChangedCount());
+        assertEquals(25, mSliders[0].getThumbReading(0), 0);
+        assertEquals(35, mSliders[1].getThumbReading(0), 0);
+        assertEquals(70, mSliders[2].getThumbReading(0), 0);
+        assertEquals(1, mInvalidationCounts[0]);
+    }
+
+    @Test
+    public void singleReadingsLeaveTheOtherSlidersAlone() {
+        mGroup.postReading(2, 90);
+        runFrame();
+
+        assertEquals(10, mSliders[0].getThumbReading(0), 0);
+        assertEquals(90, mSliders[2].getThumbReading(0), 0);
+        assertEquals(0, mInvalidationCounts[0]);
+        assertEquals(0, mInvalidationCounts[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readingsMustMatchTheSliders() {
+        mGroup.postReadings(new float[]{20, 30});
+    }
+
+    private static void runFrame() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+}
@@ -0,0 +1,78 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.touch;
+import static san.radialslider.SliderFixture.touchAtSweepAngle;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderHitTest {
+
+    @Test
+    public void theNearestThumbIsGrabbed() {
+        Slider slider = newSlider();
+        slider.setThumbCount(4);
+        slider.setThumbReadings(10, 30, 50, 70);
+        drawFrame(slider);
+
+        assertEquals(1, grab(slider, touch(MotionEvent.ACTION_DOWN, 38)));
+        assertEquals(2, grab(slider, touch(MotionEvent.ACTION_DOWN, 42)));
+        assertEquals(0, grab(slider, touch(MotionEvent.ACTION_DOWN, 4)));
+        assertEquals(3, grab(slider, touch(MotionEvent.ACTION_DOWN, 76)));
+    }
+
+    @Test
+    public void ofStackedThumbsTheOneThatCanMoveTowardsTheTouchIsGrabbed() {
+        Slider slider = newSlider();
+        slider.setThumbCount(3);
+        slider.setThumbReadings(50, 50, 50);
+        drawFrame(slider);
+
+        assertEquals(0, grab(slider, touch(MotionEvent.ACTION_DOWN, 47)));
+        assertEquals(2, grab(slider, touch(MotionEvent.ACTION_DOWN, 53)));
+
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 53));
+        slider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 60));
+
+        assertEquals(50, slider.getThumbReading(0), 0);
+        assertEquals(50, slider.getThumbReading(1), 0);
+        assertEquals(60, slider.getThumbReading(2), 0);
+    }
+
+    @Test
+    public void onAFullCircleTheNearestThumbIsFoundAcrossTheSeam() {
+        Slider slider = newSlider();
+        slider.setArc(270, 360);
+        slider.setThumbCount(3);
+        slider.setThumbReadings(3, 50, 90);
+        drawFrame(slider);
+
+        //at 99, 4 readings before the first thumb going on past max and 9 after the last one.
+        assertEquals(0, grab(slider, touchAtSweepAngle(MotionEvent.ACTION_DOWN, 270 + 99 * 3.6)));
+
+        slider.setThumbReadings(10, 50, 97);
+        drawFrame(slider);
+
+        //and at 1 the other way around.
+        assertEquals(2, grab(slider, touchAtSweepAngle(MotionEvent.ACTION_DOWN, 270 + 3.6)));
+    }
+
+    //the index of the thumb the touch selects, or -1.
+    private static int grab(Slider slider, MotionEvent down) {
+        slider.onTouchEvent(down);
+        int index = slider.getSelectedThumbIndex();
+        slider.onTouchEvent(MotionEvent.obtain(down.getDownTime(), down.getEventTime(), MotionEvent.ACTION_UP,
+                down.getX(), down.getY(), 0));
+        return index;
+    }
+}
@@ -0,0 +1,539 @@
+package san.radialslider;
+
+import android.app.Activity;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.thumbX;
+import static san.radialslider.SliderFixture.thumbY;
+import static san.radialslider.SliderFixture.touch;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderInputTest {
+    private final List<String> mCallbacks = new ArrayList<>();
+    private int mInvalidationCount;
+    private Slider mSlider;
+
+    @Before
+    public void setUp() {
+        mSlider = newSlider();
+        mSlider.setThumbReading(30);
+        mSlider.setKeyInputEnabled(true);
+        mSlider.setRenderHost(new Slider.RenderHost() {
+            @Override
+            public void onSliderInvalidated(Rect dirty) {
+                mInvalidationCount++;
+            }
+
+            @Override
+            public void post(Runnable task) {
+                task.run();
+            }
+        });
+        mSlider.registerForSliderUpdates(new Slider.IListenForSliderState() {
+            @Override
+            public void onSliderMove(float reading) {
+                mCallbacks.add("move " + reading);
+            }
+
+            @Override
+            public void onSliderUp(float reading) {
+                mCallbacks.add("up " + reading);
+            }
+
+            @Override
+            public void onThumbSelected() {
+                mCallbacks.add("selected");
+            }
+        });
+        //frames run when runFrame() says so, not as soon as they are posted.
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @After
+    public void tearDown() {
+        //the frames held back must not leak into the next test through the thread's frame ticker.
+        mSlider.release();
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void aBurstOfRotaryInputIsOneUpdate() {
+        for (int i = 0; i < 50; i++) {
+            //clockwise
+            assertTrue(mSlider.onRotaryInput(-1, SystemClock.uptimeMillis() + i * 200));
+        }
+        assertEquals(30, mSlider.getThumbReading(0), 0);
+        mInvalidationCount = 0;
+
+        runFrame();
+
+        assertEquals(80, mSlider.getThumbReading(0), 0);
+        assertEquals(1, mInvalidationCount);
+        assertEquals("[selected, move 80.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void theThumbIsReleasedWhenTheEncoderRests() {
+        mSlider.onRotaryInput(3, SystemClock.uptimeMillis());
+        runFrame();
+
+        ShadowLooper.idleMainLooper(300 - 16 - 1);
+        assertEquals("[selected, move 27.0]", mCallbacks.toString());
+        ShadowLooper.idleMainLooper(1);
+        assertEquals("[selected, move 27.0, up 27.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void fractionsOfAStepAddUp() {
+        long now = SystemClock.uptimeMillis();
+        mSlider.onRotaryInput(-0.4f, now);
+        runFrame();
+        assertEquals(30, mSlider.getThumbReading(0), 0);
+
+        mSlider.onRotaryInput(-0.4f, now + 200);
+        mSlider.onRotaryInput(-0.4f, now + 400);
+        runFrame();
+        assertEquals(31, mSlider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void quickInputsAreAccelerated() {
+        mSlider.setInputSpeed(1, 4);
+        long now = SystemClock.uptimeMillis();
+        //the first one is not accelerated, the others come back to back and move 1 + 4 steps.
+        for (int i = 0; i < 4; i++) {
+            mSlider.onRotaryInput(-1, now);
+        }
+        //half the acceleration window later, 1 + 2 steps.
+        mSlider.onRotaryInput(-1, now + 50);
+        runFrame();
+
+        assertEquals(30 + 1 + 3 * 5 + 3, mSlider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void theEndOfTheArcStopsTheInput() {
+        mSlider.setInputSpeed(10, 0);
+        long now = SystemClock.uptimeMillis();
+        for (int i = 0; i < 20; i++) {
+            mSlider.onRotaryInput(-1, now + i * 200);
+        }
+        runFrame();
+        assertEquals(100, mSlider.getThumbReading(0), 0);
+
+        //turning back moves right away, nothing is owed from past the end.
+        mSlider.onRotaryInput(1, now + 5000);
+        runFrame();
+        assertEquals(90, mSlider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void dpadKeys() {
+        long now = SystemClock.uptimeMillis();
+        mSlider.onKeyDown(KeyEvent.KEYCODE_DPAD_RIGHT, key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_RIGHT, now));
+        mSlider.onKeyDown(KeyEvent.KEYCODE_DPAD_RIGHT, key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_RIGHT, now + 500));
+        runFrame();
+        assertEquals(32, mSlider.getThumbReading(0), 0);
+
+        //held past the idle timeout, the key up releases it.
+        ShadowLooper.idleMainLooper(1000);
+        mSlider.onKeyDown(KeyEvent.KEYCODE_DPAD_LEFT, key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_LEFT, now + 1000));
+        mSlider.onKeyUp(KeyEvent.KEYCODE_DPAD_LEFT, key(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_DPAD_LEFT, now + 1100));
+        runFrame();
+
+        assertEquals(31, mSlider.getThumbReading(0), 0);
+        assertEquals("[selected, move 32.0, move 31.0, up 31.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void keyInputIsOptIn() {
+        Slider slider = newSlider();
+        long now = SystemClock.uptimeMillis();
+
+        assertEquals(false, slider.isFocusable());
+        assertEquals(false, slider.onKeyDown(KeyEvent.KEYCODE_DPAD_RIGHT,
+                key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_RIGHT, now)));
+        assertEquals(false, slider.onRotaryInput(-1, now));
+
+        slider.setKeyInputEnabled(true);
+        assertEquals(true, slider.isFocusable());
+        assertEquals(true, slider.onRotaryInput(-1, now));
+        slider.release();
+    }
+
+    @Test
+    public void disablingKeyInputReleasesTheThumb() {
+        mSlider.onRotaryInput(-2, SystemClock.uptimeMillis());
+
+        mSlider.setKeyInputEnabled(false);
+
+        assertEquals(32, mSlider.getThumbReading(0), 0);
+        assertEquals("[selected, move 32.0, up 32.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void otherScrollsAreNotTaken() {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent wheel = MotionEvent.obtain(now, now, MotionEvent.ACTION_SCROLL, 0, 0, 0);
+
+        assertEquals(false, mSlider.onGenericMotionEvent(wheel));
+    }
+
+    @Test
+    public void otherKeysAreNotTaken() {
+        KeyEvent event = key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_UP, SystemClock.uptimeMillis());
+
+        assertEquals(false, mSlider.onKeyDown(KeyEvent.KEYCODE_DPAD_UP, event));
+    }
+
+    @Test
+    public void theInputThumb() {
+        mSlider.setThumbCount(2);
+        mSlider.setThumbReadings(30, 60);
+        mSlider.setInputThumb(1);
+
+        mSlider.onRotaryInput(-5, SystemClock.uptimeMillis());
+        runFrame();
+
+        assertEquals(30, mSlider.getThumbReading(0), 0);
+        assertEquals(65, mSlider.getThumbReading(1), 0);
+    }
+
+    @Test
+    public void touchTakesOver() {
+        mSlider.onRotaryInput(-5, SystemClock.uptimeMillis());
+        runFrame();
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 35));
+
+        assertEquals("[selected, move 35.0, up 35.0, selected]", mCallbacks.toString());
+    }
+
+    @Test
+    public void distinctReadingsDropRepeatedMoves() {
+        mSlider.setDispatchPolicy(Slider.DISPATCH_DISTINCT_READINGS);
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        //30.2 moves the thumb without changing the reading.
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 30.2f));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 31));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 31.2f));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 32));
+
+        assertEquals("[selected, move 31.0, move 32.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void oncePerFrameMergesTheMovesOfAFrame() {
+        mSlider.setDispatchPolicy(Slider.DISPATCH_ONCE_PER_FRAME);
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 31));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 32));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 33));
+        assertEquals("[selected]", mCallbacks.toString());
+
+        runFrame();
+        assertEquals("[selected, move 33.0]", mCallbacks.toString());
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 34));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 35));
+        runFrame();
+        assertEquals("[selected, move 33.0, move 35.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void aPendingMergedMoveIsDeliveredBeforeTheRelease() {
+        mSlider.setDispatchPolicy(Slider.DISPATCH_ONCE_PER_FRAME);
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 31));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 32));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_UP, 32));
+        assertEquals("[selected, move 32.0, up 32.0]", mCallbacks.toString());
+
+        //nothing left for the frame.
+        runFrame();
+        assertEquals("[selected, move 32.0, up 32.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void theExecutorGetsTheLatestReading() {
+        final List<Runnable> tasks = new ArrayList<>();
+        mSlider.setDispatchExecutor(new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                tasks.add(task);
+            }
+        });
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 31));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 32));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 33));
+        //the selection and one move, the queued move takes the newer readings.
+        assertEquals(2, tasks.size());
+        runTasks(tasks);
+        assertEquals("[selected, move 33.0]", mCallbacks.toString());
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 34));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_UP, 34));
+        runTasks(tasks);
+        assertEquals("[selected, move 33.0, move 34.0, up 34.0]", mCallbacks.toString());
+    }
+
+    @Test
+    public void readingsPostedBeforeAttachingAreApplied() {
+        Slider slider = newSlider();
+
+        slider.postThumbReading(70);
+        ShadowLooper.idleMainLooper();
+        assertEquals(70, slider.getThumbReading(0), 0);
+
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        activity.setContentView(slider);
+        ShadowLooper.idleMainLooper();
+        slider.postThumbReading(80);
+        runFrame();
+        assertEquals(80, slider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void interpolatedAnimation() {
+        mSlider.setThumbAnimationInterpolator(new LinearInterpolator(), 100);
+
+        mSlider.animateThumbReading(70);
+        //the clock starts with the first frame.
+        runAnimationFrame();
+        assertEquals(30, mSlider.getThumbReading(0), 0);
+        float previous = 30;
+        for (int i = 0; i < 9; i++) {
+            runAnimationFrame();
+            float reading = mSlider.getThumbReading(0);
+            assertTrue(reading + " after " + previous, reading > previous && reading < 70);
+            previous = reading;
+        }
+        runAnimationFrame();
+
+        assertEquals(70, mSlider.getThumbReading(0), 0);
+        assertTrue(mCallbacks.isEmpty());
+    }
+
+    @Test
+    public void springAnimation() {
+        mSlider.setThumbAnimationSpring(1500, 1);
+
+        mSlider.animateThumbReading(70);
+        float previous = 30;
+        for (int i = 0; i < 60; i++) {
+            runAnimationFrame();
+            float reading = mSlider.getThumbReading(0);
+            //critically damped, it doesn't overshoot.
+            assertTrue(reading + " after " + previous, reading >= previous && reading <= 70);
+            previous = reading;
+        }
+
+        assertEquals(70, mSlider.getThumbReading(0), 0);
+        assertTrue(mCallbacks.isEmpty());
+    }
+
+    @Test
+    public void retargetingAnimationGoesOnFromWhereTheThumbIs() {
+        mSlider.setThumbAnimationInterpolator(new LinearInterpolator(), 100);
+        mSlider.animateThumbReading(70);
+        for (int i = 0; i < 5; i++) {
+            runAnimationFrame();
+        }
+        float reading = mSlider.getThumbReading(0);
+
+        mSlider.animateThumbReading(40);
+        runAnimationFrame();
+        assertEquals(reading, mSlider.getThumbReading(0), 0);
+        runAnimationFrame();
+        assertTrue(mSlider.getThumbReading(0) < reading);
+        for (int i = 0; i < 10; i++) {
+            runAnimationFrame();
+        }
+
+        assertEquals(40, mSlider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void grabbingTheThumbStopsTheAnimation() {
+        mSlider.setThumbAnimationInterpolator(new LinearInterpolator(), 100);
+        mSlider.animateThumbReading(70);
+        for (int i = 0; i < 5; i++) {
+            runAnimationFrame();
+        }
+        float reading = mSlider.getThumbReading(0);
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, reading));
+        for (int i = 0; i < 10; i++) {
+            runAnimationFrame();
+        }
+
+        assertEquals(reading, mSlider.getThumbReading(0), 0);
+        assertEquals("[selected]", mCallbacks.toString());
+    }
+
+    @Test
+    public void aFlingSlowsDownAndReleasesTheThumbOnce() {
+        mSlider.setFlingEnabled(true);
+
+        flick(30, 32);
+        assertEquals(0, count("up "));
+        runAnimationFrames();
+
+        float reading = mSlider.getThumbReading(0);
+        assertTrue(String.valueOf(reading), reading > 35 && reading < 100);
+        assertEquals("up " + reading, mCallbacks.get(mCallbacks.size() - 1));
+        assertEquals(1, count("up "));
+    }
+
+    @Test
+    public void aFlingStopsAtTheEndsOfTheArc() {
+        mSlider.setFlingEnabled(true);
+
+        flick(30, 40);
+        runAnimationFrames();
+        assertEquals(100, mSlider.getThumbReading(0), 0);
+        assertEquals("up 100.0", mCallbacks.get(mCallbacks.size() - 1));
+
+        flick(100, 80);
+        runAnimationFrames();
+        assertEquals(0, mSlider.getThumbReading(0), 0);
+        assertEquals("up 0.0", mCallbacks.get(mCallbacks.size() - 1));
+        assertEquals(2, count("up "));
+    }
+
+    @Test
+    public void aTouchStopsTheFling() {
+        mSlider.setFlingEnabled(true);
+        flick(30, 40);
+        for (int i = 0; i < 5; i++) {
+            runAnimationFrame();
+        }
+        float reading = mSlider.getThumbReading(0);
+        assertTrue(String.valueOf(reading), reading > 40 && reading < 100);
+
+        //away from the thumb, it stops wherever the touch lands.
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 10));
+        runAnimationFrames();
+
+        assertEquals(reading, mSlider.getThumbReading(0), 0);
+        assertEquals("up " + reading, mCallbacks.get(mCallbacks.size() - 1));
+        assertEquals(1, count("up "));
+    }
+
+    @Test
+    public void batchedSamplesAreTakenInOrder() {
+        final List<String> samples = new ArrayList<>();
+        mSlider.registerForSliderSamples(new Slider.IListenForSliderSamples() {
+            @Override
+            public void onSliderSamples(float[] x, float[] y, long[] eventTimes, int count) {
+                for (int i = 0; i < count; i++) {
+                    samples.add(Math.round(x[i]) + "," + Math.round(y[i]) + "@" + eventTimes[i]);
+                }
+                samples.add("|");
+            }
+        });
+        long downTime = SystemClock.uptimeMillis();
+        mSlider.onTouchEvent(timedTouch(MotionEvent.ACTION_DOWN, 30, downTime, downTime));
+
+        //a batched move event: three samples on the arc and the last one slipped into the gap below the dial, where
+        //the thumb stays at the sample before.
+        float[] x = {thumbX(32), thumbX(34), thumbX(36), 200};
+        float[] y = {thumbY(32), thumbY(34), thumbY(36), 426};
+        long[] eventTimes = {downTime + 4, downTime + 8, downTime + 12, downTime + 16};
+        mSlider.onMoveSamples(x, y, eventTimes, 4);
+
+        assertEquals(Arrays.asList(sample(32, downTime + 4), sample(34, downTime + 8), sample(36, downTime + 12),
+                "200,426@" + (downTime + 16), "|"), samples);
+        assertEquals(36, mSlider.getThumbReading(0), 0);
+        //one update per event.
+        assertEquals("[selected, move 36.0]", mCallbacks.toString());
+    }
+
+    private static String sample(float reading, long eventTime) {
+        return Math.round(thumbX(reading)) + "," + Math.round(thumbY(reading)) + "@" + eventTime;
+    }
+
+    //drags the thumb quickly from one reading to the other and lets go.
+    private void flick(float fromReading, float toReading) {
+        long downTime = SystemClock.uptimeMillis();
+        mSlider.onTouchEvent(timedTouch(MotionEvent.ACTION_DOWN, fromReading, downTime, downTime));
+        float reading = fromReading;
+        for (int i = 1; i <= 4; i++) {
+            reading = fromReading + (toReading - fromReading) * i / 4;
+            mSlider.onTouchEvent(timedTouch(MotionEvent.ACTION_MOVE, reading, downTime, downTime + i * 10));
+        }
+        mSlider.onTouchEvent(timedTouch(MotionEvent.ACTION_UP, reading, downTime, downTime + 40));
+    }
+
+    private static MotionEvent timedTouch(int action, float reading, long downTime, long eventTime) {
+        return MotionEvent.obtain(downTime, eventTime, action, thumbX(reading), thumbY(reading), 0);
+    }
+
+    private int count(String prefix) {
+        int count = 0;
+        for (String callback : mCallbacks) {
+            if (callback.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void runTasks(List<Runnable> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).run();
+        }
+        tasks.clear();
+    }
+
+    private static KeyEvent key(int action, int keyCode, long eventTime) {
+        return new KeyEvent(eventTime, eventTime, action, keyCode, 0);
+    }
+
+    //the choreographer runs the frames an animation asks for back to back, 10ms apart, one of them.
+    private static void runAnimationFrame() {
+        ShadowLooper.getShadowMainLooper().runOneTask();
+    }
+
+    //until nothing asks for another frame.
+    private static void runAnimationFrames() {
+        ShadowLooper looper = ShadowLooper.getShadowMainLooper();
+        for (int i = 0; i < 1000 && looper.getScheduler().size() > 0; i++) {
+            looper.runOneTask();
+        }
+    }
+
+    //a frame, without running into the idle timeout.
+    private static void runFrame() {
+        ShadowLooper.idleMainLooper(16);
+    }
+
+}
@@ -0,0 +1,279 @@
+package san.radialslider;
+
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.thumbX;
+import static san.radialslider.SliderFixture.thumbY;
+import static san.radialslider.SliderFixture.touch;
+
+/*
+ * Moving a thumb repaints only the dirty rect, whatever changed between the two frames has to lie inside of it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderInvalidationTest {
+    private static final Pattern TEXT_OP = Pattern.compile("drawText \"[^\"]*\" at (-?[\\d.]+) (-?[\\d.]+) .*");
+    private static final Pattern ARC_OP = Pattern.compile(
+            "drawArc \\[(-?[\\d.]+) (-?[\\d.]+) (-?[\\d.]+) (-?[\\d.]+)] start=(-?[\\d.]+) sweep=(-?[\\d.]+) .*");
+    //the thumb shadow is blitted turned around the thumb center.
+    private static final Pattern SHADOW_OPS = Pattern.compile("save\ntranslate (-?[\\d.]+) (-?[\\d.]+)\n"
+            + "rotate (-?[\\d.]+)\ntranslate \\S+ \\S+\ndrawBitmap (\\d+)x(\\d+) at (-?[\\d.]+) (-?[\\d.]+)\n");
+    private static final int THUMB_RADIUS = 50;
+
+    private final List<Rect> mInvalidations = new ArrayList<>();
+    private Slider mSlider;
+
+    @Before
+    public void setUp() {
+        mSlider = newSlider();
+        mSlider.setRenderHost(new Slider.RenderHost() {
+            @Override
+            public void onSliderInvalidated(Rect dirty) {
+                mInvalidations.add(dirty != null ? new Rect(dirty) : null);
+            }
+
+            @Override
+            public void post(Runnable task) {
+                task.run();
+            }
+        });
+        mSlider.setThumbReading(30);
+        mInvalidations.clear();
+    }
+
+    @Test
+    public void dragRepaintsWhatChanged() {
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        RecordingCanvas before = drawFrame(mSlider);
+        mInvalidations.clear();
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 45));
+        RecordingCanvas after = drawFrame(mSlider);
+
+        Rect dirty = lastInvalidation();
+        assertSmallerThanTheView(dirty);
+        assertContainsThumb(dirty, 30);
+        assertContainsThumb(dirty, 45);
+        assertChangedTextInside(dirty, before.getOps(), after.getOps());
+    }
+
+    @Test
+    public void successiveMovesRepaintWhatChanged() {
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 45));
+        RecordingCanvas before = drawFrame(mSlider);
+        mInvalidations.clear();
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 52));
+        RecordingCanvas after = drawFrame(mSlider);
+
+        Rect dirty = lastInvalidation();
+        assertSmallerThanTheView(dirty);
+        assertContainsThumb(dirty, 45);
+        assertContainsThumb(dirty, 52);
+        assertChangedTextInside(dirty, before.getOps(), after.getOps());
+    }
+
+    @Test
+    public void moveThatDoesNotMoveTheThumbRepaintsNothing() {
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 45));
+        mInvalidations.clear();
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 45));
+
+        assertTrue(mInvalidations.isEmpty());
+    }
+
+    @Test
+    public void postedReadingRepaintsTheThumb() {
+        RecordingCanvas before = drawFrame(mSlider);
+
+        mSlider.postThumbReading(70);
+        RecordingCanvas after = drawFrame(mSlider);
+
+        Rect dirty = lastInvalidation();
+        assertEquals(70, mSlider.getThumbReading(0), 0);
+        assertContainsThumb(dirty, 30);
+        assertContainsThumb(dirty, 70);
+        assertChangedTextInside(dirty, before.getOps(), after.getOps());
+    }
+
+    @Test
+    public void dragRepaintsTheThumbShadows() {
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        RecordingCanvas before = drawFrame(mSlider);
+        mInvalidations.clear();
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 60));
+        RecordingCanvas after = drawFrame(mSlider);
+
+        Rect dirty = lastInvalidation();
+        assertSmallerThanTheView(dirty);
+        assertChangedShadowsInside(dirty, before.getSnapshot(), after.getSnapshot());
+    }
+
+    //a drag draws an arc from the thumb of the last frame to the moved one, here over the top of the dial, away from
+    //both thumbs.
+    @Test
+    public void dragRepaintsTheSweptArc() {
+        mSlider.setThumbReading(20);
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 20));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 22));
+        RecordingCanvas before = drawFrame(mSlider);
+        mInvalidations.clear();
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 80));
+        RecordingCanvas after = drawFrame(mSlider);
+
+        Rect dirty = lastInvalidation();
+        assertSmallerThanTheView(dirty);
+        assertChangedArcInside(dirty, before.getOps(), after.getOps());
+    }
+
+    private Rect lastInvalidation() {
+        assertTrue("Nothing was invalidated", !mInvalidations.isEmpty());
+        Rect dirty = mInvalidations.get(mInvalidations.size() - 1);
+        assertNotNull("The whole view was invalidated", dirty);
+        return dirty;
+    }
+
+    private static void assertSmallerThanTheView(Rect dirty) {
+        assertTrue(dirty + " covers the whole view",
+                dirty.width() < SliderFixture.SIZE || dirty.height() < SliderFixture.SIZE);
+    }
+
+    private static void assertContainsThumb(Rect dirty, float reading) {
+        int x = Math.round(thumbX(reading));
+        int y = Math.round(thumbY(reading));
+        assertTrue(dirty + " misses the thumb at " + reading,
+                dirty.contains(x - THUMB_RADIUS, y - THUMB_RADIUS, x + THUMB_RADIUS, y + THUMB_RADIUS));
+    }
+
+    //texts drawn in only one of the frames changed, both the old and the new ones must have been repainted.
+    private static void assertChangedTextInside(Rect dirty, List<String> before, List<String> after) {
+        Set<String> unchanged = new HashSet<>(before);
+        unchanged.retainAll(after);
+        List<String> changed = new ArrayList<>(before);
+        changed.addAll(after);
+        changed.removeAll(unchanged);
+
+        for (String op : changed) {
+            Matcher matcher = TEXT_OP.matcher(op);
+            if (matcher.matches()) {
+                float x = Float.parseFloat(matcher.group(1));
+                float y = Float.parseFloat(matcher.group(2));
+                assertTrue(dirty + " misses " + op, dirty.contains((int) x, (int) y));
+            }
+        }
+    }
+
+    //shadows blitted in only one of the frames changed, what they cover of the view must have been repainted.
+    private static void assertChangedShadowsInside(Rect dirty, String before, String after) {
+        List<String> shadows = shadowsOf(before);
+        List<String> afterShadows = shadowsOf(after);
+        List<String> changed = new ArrayList<>(shadows);
+        changed.removeAll(afterShadows);
+        afterShadows.removeAll(shadowsOf(before));
+        changed.addAll(afterShadows);
+        assertTrue("No shadow moved", !changed.isEmpty());
+
+        for (String shadow : changed) {
+            Matcher matcher = SHADOW_OPS.matcher(shadow);
+            assertTrue(matcher.matches());
+            float left = Float.parseFloat(matcher.group(6));
+            float top = Float.parseFloat(matcher.group(7));
+            float right = left + Integer.parseInt(matcher.group(4));
+            float bottom = top + Integer.parseInt(matcher.group(5));
+            float[] corners = {left, top, right, top, right, bottom, left, bottom};
+            Matrix rotation = new Matrix();
+            rotation.setRotate(Float.parseFloat(matcher.group(3)), Float.parseFloat(matcher.group(1)),
+                    Float.parseFloat(matcher.group(2)));
+            rotation.mapPoints(corners);
+
+            RectF bounds = new RectF(corners[0], corners[1], corners[0], corners[1]);
+            for (int i = 2; i < corners.length; i += 2) {
+                bounds.union(corners[i], corners[i + 1]);
+            }
+            if (bounds.intersect(0, 0, SliderFixture.SIZE, SliderFixture.SIZE)) {
+                assertTrue(dirty + " misses the shadow " + shadow, dirty.contains((int) bounds.left,
+                        (int) bounds.top, (int) bounds.right, (int) bounds.bottom));
+            }
+        }
+    }
+
+    private static List<String> shadowsOf(String snapshot) {
+        List<String> shadows = new ArrayList<>();
+        Matcher matcher = SHADOW_OPS.matcher(snapshot);
+        while (matcher.find()) {
+            shadows.add(matcher.group());
+        }
+        return shadows;
+    }
+
+    /*
+     * The drag arc of the frame after against the one of the frame before, if it drew one, on the same oval. What only
+     * one of them covers changed and must have been repainted, checked every degree along the middle of the stroke.
+     */
+    private static void assertChangedArcInside(Rect dirty, List<String> before, List<String> after) {
+        Matcher afterArc = changedArc(after, before);
+        assertNotNull("No arc changed", afterArc);
+        float afterStart = Float.parseFloat(afterArc.group(5));
+        float afterEnd = afterStart + Float.parseFloat(afterArc.group(6));
+        Matcher beforeArc = changedArc(before, after);
+        float beforeStart = beforeArc != null ? Float.parseFloat(beforeArc.group(5)) : afterStart;
+        float beforeEnd = beforeArc != null ? beforeStart + Float.parseFloat(beforeArc.group(6)) : afterStart;
+        RectF oval = new RectF(Float.parseFloat(afterArc.group(1)), Float.parseFloat(afterArc.group(2)),
+                Float.parseFloat(afterArc.group(3)), Float.parseFloat(afterArc.group(4)));
+
+        int checked = 0;
+        for (float angle = Math.min(beforeStart, afterStart) + 0.5f; angle < Math.max(beforeEnd, afterEnd); angle++) {
+            boolean inBefore = angle > beforeStart && angle < beforeEnd;
+            boolean inAfter = angle > afterStart && angle < afterEnd;
+            if (inBefore == inAfter) {
+                continue;
+            }
+            double radians = Math.toRadians(angle);
+            int x = (int) (oval.centerX() + oval.width() / 2 * Math.cos(radians));
+            int y = (int) (oval.centerY() + oval.height() / 2 * Math.sin(radians));
+            assertTrue(dirty + " misses the arc at " + angle + " degrees", dirty.contains(x, y));
+            checked++;
+        }
+        assertTrue("The arc did not change", checked > 0);
+    }
+
+    //the arc of the frame that the other frame does not draw, if any.
+    private static Matcher changedArc(List<String> frame, List<String> otherFrame) {
+        Matcher changed = null;
+        for (String op : frame) {
+            Matcher matcher = ARC_OP.matcher(op);
+            if (matcher.matches() && !otherFrame.contains(op)) {
+                assertTrue("More than one arc changed", changed == null);
+                changed = matcher;
+            }
+        }
+        return changed;
+    }
+}
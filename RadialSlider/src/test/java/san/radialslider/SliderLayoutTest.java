@@ -0,0 +1,78 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.touch;
+
+/*
+ * Where layout puts the thumbs. The thumbs' distance from the center follows the dial radius, which onSizeChanged
+ * has to compute first.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderLayoutTest {
+    @Test
+    public void thumbsAreOnTheirPathAfterTheFirstLayout() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+
+        SelectionCounter counter = new SelectionCounter();
+        slider.registerForSliderUpdates(counter);
+
+        //the fixture's touches are 226 away from the center.
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+
+        assertEquals(1, counter.mSelectionCount);
+    }
+
+    @Test
+    public void thumbsFollowTheDialWhenTheSizeChanges() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        int size = 800;
+        slider.measure(View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY));
+        slider.layout(0, 0, size, size);
+        SelectionCounter counter = new SelectionCounter();
+        slider.registerForSliderUpdates(counter);
+
+        //the dial grows from a radius of 179 to 379, the thumbs move out by as much.
+        SliderGeometry geometry = new SliderGeometry(120, 300);
+        geometry.setCenter(size / 2, size / 2);
+        geometry.setRange(SliderFixture.MIN, SliderFixture.MAX);
+        geometry.setThumbDistance(426);
+        double angle = geometry.thumbAngleForReading(30);
+        long now = SystemClock.uptimeMillis();
+        slider.onTouchEvent(MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, geometry.thumbX(angle),
+                geometry.thumbY(angle), 0));
+
+        assertEquals(1, counter.mSelectionCount);
+    }
+
+    private static final class SelectionCounter implements Slider.IListenForSliderState {
+        int mSelectionCount;
+
+        @Override
+        public void onSliderMove(float reading) {
+        }
+
+        @Override
+        public void onSliderUp(float reading) {
+        }
+
+        @Override
+        public void onThumbSelected() {
+            mSelectionCount++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.touch;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderMetricsTest {
+    private final SliderMetrics mMetrics = new SliderMetrics();
+    private Slider mSlider;
+
+    @Before
+    public void setUp() {
+        mSlider = newSlider();
+        mSlider.setThumbReading(30);
+        mSlider.setMetrics(mMetrics);
+    }
+
+    @Test
+    public void everyDrawIsRecorded() {
+        drawFrame(mSlider);
+        drawFrame(mSlider);
+
+        assertEquals(2, mMetrics.getDrawDuration().snapshot().getCount());
+        assertEquals(0, mMetrics.getTouchToFrameLatency().snapshot().getCount());
+    }
+
+    @Test
+    public void movesUntilTheNextFrameMakeOneLatency() {
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 40));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 45));
+        drawFrame(mSlider);
+        drawFrame(mSlider);
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 50));
+        drawFrame(mSlider);
+
+        assertEquals(2, mMetrics.getTouchToFrameLatency().snapshot().getCount());
+    }
+
+    @Test
+    public void movesThatDontMoveTheThumbAreNotMeasured() {
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 40));
+        drawFrame(mSlider);
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 40));
+        drawFrame(mSlider);
+
+        assertEquals(1, mMetrics.getTouchToFrameLatency().snapshot().getCount());
+    }
+
+    @Test
+    public void listenerCallbacksAreRecorded() {
+        mSlider.registerForSliderUpdates(new Slider.IListenForSliderState() {
+            @Override
+            public void onSliderMove(float reading) {
+            }
+
+            @Override
+            public void onSliderUp(float reading) {
+            }
+
+            @Override
+            public void onThumbSelected() {
+            }
+        });
+
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 40));
+        mSlider.onTouchEvent(touch(MotionEvent.ACTION_UP, 40));
+
+        //selected, moved, released.
+        assertEquals(3, mMetrics.getListenerDispatchDuration().snapshot().getCount());
+    }
+}
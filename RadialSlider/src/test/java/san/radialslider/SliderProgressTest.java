@@ -0,0 +1,108 @@
+package san.radialslider;
+
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static san.radialslider.SliderFixture.assertMatchesGolden;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+import static san.radialslider.SliderFixture.touch;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderProgressTest {
+
+    @Test
+    public void progressFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setProgressColors(0xFF2196F3);
+
+        assertMatchesGolden("progress_frame", drawFrame(slider).getSnapshot());
+    }
+
+    @Test
+    public void gradientProgressFrame() throws Exception {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setProgressColors(0xFF00FF00, 0xFFFFFF00, 0xFFFF0000);
+
+        assertMatchesGolden("gradient_progress_frame", drawFrame(slider).getSnapshot());
+    }
+
+    @Test
+    public void rangeProgressGoesFromThumbToThumb() {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(20, 80);
+        slider.setProgressColors(0xFF2196F3);
+
+        String snapshot = drawFrame(slider).getSnapshot();
+
+        //20 and 80 are 60 and 240 degrees along the arc.
+        assertTrue(snapshot, snapshot.contains("start=180.0 sweep=180.0"));
+    }
+
+    @Test
+    public void noProgressAtMin() {
+        Slider slider = newSlider();
+        slider.setThumbReading(0);
+        slider.setProgressColors(0xFF2196F3);
+
+        assertFalse(drawFrame(slider).getSnapshot().contains("drawArc"));
+    }
+
+    @Test
+    public void removingTheProgress() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setProgressColors(0xFF2196F3);
+        assertArrayEquals(new int[]{0xFF2196F3}, slider.getProgressColors());
+
+        slider.setProgressColors();
+
+        assertEquals(0, slider.getProgressColors().length);
+        assertFalse(drawFrame(slider).getSnapshot().contains("drawArc"));
+    }
+
+    @Test
+    public void dirtyRectCoversTheGrownProgress() {
+        final Rect dirty = new Rect();
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+        slider.setProgressColors(0xFF2196F3);
+        drawFrame(slider);
+        slider.setRenderHost(new Slider.RenderHost() {
+            @Override
+            public void onSliderInvalidated(Rect dirtyRect) {
+                //touch down repaints everything, only the move is of interest.
+                if (dirtyRect != null) {
+                    dirty.union(dirtyRect);
+                }
+            }
+
+            @Override
+            public void post(Runnable task) {
+                task.run();
+            }
+        });
+
+        slider.onTouchEvent(touch(MotionEvent.ACTION_DOWN, 30));
+        slider.onTouchEvent(touch(MotionEvent.ACTION_MOVE, 70));
+
+        //the fill grew over the top of the dial, from 210 to 330 degrees, 22 wide around a radius of 179.
+        assertTrue(dirty.toShortString(), dirty.top <= 21 - 11);
+        assertTrue(dirty.toShortString(), dirty.left <= 200 - 179 * 0.866f - 11);
+        assertTrue(dirty.toShortString(), dirty.right >= 200 + 179 * 0.866f + 11);
+    }
+}
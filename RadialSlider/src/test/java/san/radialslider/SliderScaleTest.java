@@ -0,0 +1,106 @@
+package san.radialslider;
+
+import android.os.Build;
+import android.view.MotionEvent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderScaleTest {
+
+    @Test
+    public void fractionalReadingsAreShownWithTheirDecimals() {
+        Slider slider = newSlider();
+        slider.setStepSize(0.5f);
+        slider.setThumbReading(30.5f);
+
+        RecordingCanvas canvas = drawFrame(slider);
+
+        assertTrue(canvas.getSnapshot(), canvas.getSnapshot().contains("drawText \"30.5\""));
+    }
+
+    @Test
+    public void changingTheScaleKeepsTheReadings() {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(20, 80);
+
+        slider.setScale(SliderScale.logarithmic());
+
+        assertEquals(20, slider.getThumbReading(0), 0);
+        assertEquals(80, slider.getThumbReading(1), 0);
+    }
+
+    @Test
+    public void draggingOnALogarithmicScale() {
+        Slider slider = newSlider();
+        slider.setScale(SliderScale.logarithmic());
+        slider.setThumbReading(0);
+        drawFrame(slider);
+
+        //halfway along the arc of 0 to 100, sqrt(101) - 1 on the log scale.
+        float x = 200 + 226 * (float) Math.cos(Math.toRadians(90));
+        float y = 200 - 226 * (float) Math.sin(Math.toRadians(90));
+        slider.onTouchEvent(SliderFixture.touch(MotionEvent.ACTION_DOWN, 0));
+        long now = android.os.SystemClock.uptimeMillis();
+        slider.onTouchEvent(MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, x, y, 0));
+
+        assertEquals(9, slider.getThumbReading(0), 0);
+    }
+
+    @Test
+    public void draggingOnALogarithmicFrequencyRange() {
+        Slider slider = newSlider();
+        slider.setRange(20, 20000);
+        slider.setScale(SliderScale.logarithmic());
+        slider.setStepSize(0.5f);
+        slider.setThumbReading(20);
+        drawFrame(slider);
+
+        slider.onTouchEvent(SliderFixture.touchAtSweepAngle(MotionEvent.ACTION_DOWN, 120));
+        slider.onTouchEvent(SliderFixture.touchAtSweepAngle(MotionEvent.ACTION_MOVE, 270));
+
+        //halfway along the arc, sqrt(20 * 20000) to the half step.
+        assertEquals(632.5f, slider.getThumbReading(0), 0);
+        assertEquals(20, slider.getMin());
+        assertEquals(20000, slider.getMax());
+    }
+
+    @Test
+    public void narrowingTheRangeMovesTheThumbsInside() {
+        Slider slider = newSlider();
+        slider.setThumbCount(2);
+        slider.setThumbReadings(20, 80);
+
+        slider.setRange(40, 60);
+
+        assertEquals(40, slider.getThumbReading(0), 0);
+        assertEquals(60, slider.getThumbReading(1), 0);
+    }
+
+    @Test
+    public void rejectedRangeChangesNothing() {
+        Slider slider = newSlider();
+        slider.setThumbReading(30);
+
+        try {
+            slider.setRange(50, 50);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals(0, slider.getMin());
+        assertEquals(100, slider.getMax());
+        assertEquals(30, slider.getThumbReading(0), 0);
+    }
+}
@@ -0,0 +1,92 @@
+package san.radialslider;
+
+import android.os.Build;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static san.radialslider.SliderFixture.newSlider;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderStyleTest {
+    private static final int ARC_COLOR = 0xFF336699;
+    private static final int LOOKUPS = 1000;
+    private static final int MAX_LOOKUP_BYTES = 64;
+
+    @Test
+    public void slidersOfOneStyleShareIt() {
+        Slider slider = newSlider();
+        Slider other = newSlider();
+
+        assertSame(slider.getStyle(), other.getStyle());
+        assertFalse(slider.getStyle().isPrivate());
+    }
+
+    @Test
+    public void changedStyleIsSharedToo() {
+        Slider slider = newSlider();
+        Slider other = newSlider();
+
+        slider.setArcColor(ARC_COLOR);
+        other.setArcColor(ARC_COLOR);
+
+        assertSame(slider.getStyle(), other.getStyle());
+    }
+
+    @Test
+    public void textureViewSliderHasAPrivateStyle() {
+        Slider hosted = new SliderTextureView(RuntimeEnvironment.application).getSlider();
+        Slider slider = newSlider();
+
+        assertTrue(hosted.getStyle().isPrivate());
+        assertNotSame(slider.getStyle(), hosted.getStyle());
+        assertEquals(slider.getStyle(), hosted.getStyle());
+    }
+
+    @Test
+    public void privateStyleStaysPrivateWhenItChanges() {
+        Slider slider = newSlider();
+        slider.usePrivateStyle();
+        Slider other = newSlider();
+
+        slider.setArcColor(ARC_COLOR);
+        other.setArcColor(ARC_COLOR);
+
+        assertTrue(slider.getStyle().isPrivate());
+        assertEquals(ARC_COLOR, slider.getStyle().getArcColor());
+        assertNotSame(other.getStyle(), slider.getStyle());
+    }
+
+    @Test
+    public void lookingUpASharedStyleBuildsNoPaints() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        SliderStyle style = newSlider().getStyle();
+        SliderStyle changed = style.withArcColor(ARC_COLOR);
+        long threadId = Thread.currentThread().getId();
+
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertSame(changed, style.withArcColor(ARC_COLOR));
+        }
+        long bytesPerLookup = (allocations.getThreadAllocatedBytes(threadId) - before) / LOOKUPS;
+
+        //the key, a paint alone takes more.
+        assertTrue(bytesPerLookup + " bytes per lookup", bytesPerLookup <= MAX_LOOKUP_BYTES);
+    }
+}
@@ -0,0 +1,95 @@
+package san.radialslider;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static san.radialslider.SliderFixture.drawFrame;
+import static san.radialslider.SliderFixture.newSlider;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.N)
+public class SliderThumbImageTest {
+    //dial layer, thumb image.
+    private static final int THUMB_IMAGE_FRAME_DRAW_OPS = 2;
+
+    private final CountingDrawable mDrawable = new CountingDrawable();
+    private Slider mSlider;
+
+    @Before
+    public void setUp() {
+        mSlider = newSlider();
+        mSlider.setThumbReading(30);
+        mSlider.setThumbImage(mDrawable);
+    }
+
+    @Test
+    public void imageIsBlittedAtTheThumb() throws Exception {
+        RecordingCanvas canvas = drawFrame(mSlider);
+
+        assertEquals(THUMB_IMAGE_FRAME_DRAW_OPS, canvas.getDrawCount());
+        SliderFixture.assertMatchesGolden("thumb_image_frame", canvas.getSnapshot());
+    }
+
+    @Test
+    public void imageIsRasterizedOnce() {
+        drawFrame(mSlider);
+        drawFrame(mSlider);
+        mSlider.setThumbReading(60);
+        drawFrame(mSlider);
+
+        assertEquals(1, mDrawable.mDrawCount);
+    }
+
+    @Test
+    public void imageIsRasterizedAgainWhenTheTintChanges() {
+        drawFrame(mSlider);
+        mSlider.setThumbImageTinted(true);
+        drawFrame(mSlider);
+        drawFrame(mSlider);
+
+        assertEquals(2, mDrawable.mDrawCount);
+    }
+
+    @Test
+    public void imageIsRasterizedAgainWhenItIsSetAgain() {
+        drawFrame(mSlider);
+        mSlider.setThumbImage(mDrawable);
+        drawFrame(mSlider);
+
+        assertEquals(2, mDrawable.mDrawCount);
+    }
+
+    private static class CountingDrawable extends Drawable {
+        private int mDrawCount;
+
+        @Override
+        public void draw(Canvas canvas) {
+            mDrawCount++;
+            canvas.drawColor(Color.RED);
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+        }
+
+        @Override
+        public void setColorFilter(ColorFilter colorFilter) {
+        }
+
+        @Override
+        public int getOpacity() {
+            return PixelFormat.OPAQUE;
+        }
+    }
+}
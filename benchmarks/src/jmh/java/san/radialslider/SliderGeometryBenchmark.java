@@ -0,0 +1,120 @@
+package san.radialslider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/*
+ * What Slider does per event, on a 900px dial:
+ * touch point -> angle (updateSliderState), angle -> reading (valueOnTheSlider), reading -> angle (getAngleFromReading),
+ * validity checks (isValidAngle) and the thumb position / tear drop vertex computed for every drawn thumb.
+ *
+ * Inputs are cycled through pre-generated arrays so the JIT can't fold them into constants.
+ */
+@State(Scope.Thread)
+public class SliderGeometryBenchmark {
+    private static final int SAMPLES = 1024;
+    private static final int DIAL_SIZE = 900;
+
+    @Param({"100", "100000"})
+    public int max;
+
+    //non-linear scales resolve through the lookup table the geometry compiles for them.
+    @Param({"linear", "logarithmic"})
+    public String scale;
+
+    private SliderGeometry mGeometry;
+    private final float[] mTouchX = new float[SAMPLES];
+    private final float[] mTouchY = new float[SAMPLES];
+    private final double[] mAngles = new double[SAMPLES];
+    private final double[] mReadings = new double[SAMPLES];
+    private final float[] mTearDropTip = new float[2];
+    private ThumbPositionTable mThumbPositionTable;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        mGeometry = new SliderGeometry(120, 300);
+        mGeometry.setRange(0, max);
+        mGeometry.setCenter(DIAL_SIZE / 2f, DIAL_SIZE / 2f);
+        mGeometry.setThumbDistance(DIAL_SIZE / 2 - 20);
+        if ("logarithmic".equals(scale)) {
+            mGeometry.setScale(SliderScale.logarithmic());
+        }
+
+        mThumbPositionTable = new ThumbPositionTable();
+        mThumbPositionTable.ensure(mGeometry, 50);
+
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            mTouchX[i] = random.nextInt(DIAL_SIZE);
+            mTouchY[i] = random.nextInt(DIAL_SIZE);
+            mReadings[i] = random.nextInt(max + 1);
+            //only valid angles reach the reading and drawing code.
+            mAngles[i] = Math.toRadians(mGeometry.angleForReading(mReadings[i]));
+        }
+    }
+
+    private int next() {
+        return mIndex = (mIndex + 1) & (SAMPLES - 1);
+    }
+
+    @Benchmark
+    public double touchToAngle() {
+        int i = next();
+        return mGeometry.angleAt(mTouchX[i], mTouchY[i]);
+    }
+
+    @Benchmark
+    public float angleToReading() {
+        return mGeometry.readingAt(mAngles[next()]);
+    }
+
+    @Benchmark
+    public double readingToAngle() {
+        return mGeometry.angleForReading(mReadings[next()]);
+    }
+
+    @Benchmark
+    public boolean isValidAngle() {
+        int i = next();
+        return mGeometry.isValidAngle(mGeometry.angleAt(mTouchX[i], mTouchY[i]));
+    }
+
+    //the whole move event: touch point to reading, only for touches on the arc.
+    @Benchmark
+    public float touchToReading() {
+        int i = next();
+        double angle = mGeometry.angleAt(mTouchX[i], mTouchY[i]);
+        return mGeometry.isValidAngle(angle) ? mGeometry.readingAt(angle) : -1;
+    }
+
+    @Benchmark
+    public float thumbPosition() {
+        double angle = mAngles[next()];
+        int thumbX = mGeometry.thumbX(angle);
+        int thumbY = mGeometry.thumbY(angle);
+        mGeometry.tearDropTip(thumbX, thumbY, 75, mTearDropTip);
+        return (float) SliderGeometry.tearDropStartAngle(angle) + mTearDropTip[0] + mTearDropTip[1];
+    }
+
+    //the same as thumbPosition for a thumb snapped to its reading, falls back to computing when the range is too wide.
+    @Benchmark
+    public float snappedThumbPosition() {
+        int i = next();
+        int index = mThumbPositionTable.indexOf((float) mReadings[i]);
+        if (index < 0) {
+            double angle = mAngles[i];
+            int thumbX = mGeometry.thumbX(angle);
+            int thumbY = mGeometry.thumbY(angle);
+            mGeometry.tearDropTip(thumbX, thumbY, 75, mTearDropTip);
+            return (float) SliderGeometry.tearDropStartAngle(angle) + mTearDropTip[0] + mTearDropTip[1];
+        }
+        return mThumbPositionTable.getTearDropStartAngle(index) + mThumbPositionTable.getTearDropTipX(index)
+                + mThumbPositionTable.getTearDropTipY(index);
+    }
+}